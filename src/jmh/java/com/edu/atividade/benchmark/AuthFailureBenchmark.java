@@ -0,0 +1,126 @@
+package com.edu.atividade.benchmark;
+
+import com.edu.atividade.config.StacklessDaoAuthenticationProvider;
+import com.edu.atividade.controller.GlobalExceptionHandler;
+import com.edu.atividade.datasource.ReadRouting;
+import com.edu.atividade.model.CustomUserDetails;
+import com.edu.atividade.model.Role;
+import com.edu.atividade.model.User;
+import com.edu.atividade.repository.UserRepository;
+import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.PasswordHashingExecutor;
+import com.edu.atividade.service.TokenValidation;
+import com.edu.atividade.service.UnknownUsernameException;
+import com.edu.atividade.service.UserNotFoundException;
+import com.edu.atividade.service.UserService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expected failures, from the service call to the response the client gets: an expired token, a login
+ * with a wrong password or an unknown user and a missing user. Passwords are not hashed and the repository
+ * is stubbed, so the numbers are the cost of the failure itself. Conflicts need the real database and are
+ * measured by {@link RegistrationConflictBenchmark}. Run with {@code -prof gc} to see the allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthFailureBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    // Plain-text comparison, so the numbers leave out hashing
+    private static final PasswordEncoder PLAIN_TEXT = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    private JwtService jwtService;
+    private String expiredToken;
+    private AuthenticationProvider authenticationProvider;
+    private UserService userService;
+    private GlobalExceptionHandler exceptionHandler;
+
+    @Setup
+    public void setUp() {
+        User user = new User(1L, "benchmark-user", "benchmark@example.com", "secret", Role.ROLE_USER);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+
+        // A negative lifetime issues tokens that have already expired
+        jwtService = new JwtService(SECRET, List.of(), -60_000L);
+        expiredToken = jwtService.generateToken(userDetails);
+
+        DaoAuthenticationProvider provider = new StacklessDaoAuthenticationProvider();
+        provider.setPasswordEncoder(PLAIN_TEXT);
+        provider.setUserDetailsService(username -> {
+            if (username.equals(user.getUsername())) {
+                return userDetails;
+            }
+            throw new UnknownUsernameException();
+        });
+        authenticationProvider = provider;
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findProfileById(2L)).thenReturn(Optional.empty());
+        userService = new UserService(userRepository, PLAIN_TEXT, event -> { }, ReadRouting.disabled(),
+                new PasswordHashingExecutor(1, 1), Mockito.mock(PlatformTransactionManager.class));
+
+        exceptionHandler = new GlobalExceptionHandler();
+    }
+
+    @Benchmark
+    public TokenValidation expiredToken() {
+        return jwtService.validateToken(expiredToken);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> wrongPassword() {
+        return login("benchmark-user", "wrong");
+    }
+
+    @Benchmark
+    public ResponseEntity<?> unknownUser() {
+        return login("nobody", "wrong");
+    }
+
+    @Benchmark
+    public ResponseEntity<?> userNotFound() {
+        try {
+            return ResponseEntity.ok(userService.getProfileById(2L));
+        } catch (UserNotFoundException e) {
+            return exceptionHandler.handleUserNotFoundException(e);
+        }
+    }
+
+    private ResponseEntity<?> login(String username, String password) {
+        try {
+            return ResponseEntity.ok(authenticationProvider.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)));
+        } catch (AuthenticationException e) {
+            return exceptionHandler.handleAuthenticationException(e);
+        }
+    }
+}
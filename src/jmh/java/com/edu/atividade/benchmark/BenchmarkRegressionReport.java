@@ -0,0 +1,91 @@
+package com.edu.atividade.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result against a baseline and exits with status 1 when any benchmark got
+ * slower than the allowed threshold. Average-time scores regress upwards, throughput downwards.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.edu.atividade.benchmark.BenchmarkRegressionReport \
+ *     -Djmh.args="benchmarks/baseline.json target/jmh-result.json 10"
+ * </pre>
+ * Arguments: baseline file, current file and the allowed regression in percent (default 10).
+ */
+public final class BenchmarkRegressionReport {
+
+    private BenchmarkRegressionReport() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkRegressionReport <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Score> baseline = read(mapper.readTree(new File(args[0])));
+        Map<String, Score> current = read(mapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(now.unit())) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", now.value(), "new");
+                continue;
+            }
+            double change = (now.value() - before.value()) / before.value() * 100;
+            // For throughput a higher score is better, so a drop is the regression
+            double slowdown = now.higherIsBetter() ? -change : change;
+            boolean regressed = slowdown > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n",
+                    entry.getKey(), before.value(), now.value(), change, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+        System.out.printf("No regressions above %.1f%%%n", threshold);
+    }
+
+    private static Map<String, Score> read(JsonNode results) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            JsonNode metric = result.get("primaryMetric");
+            scores.put(key(result), new Score(
+                    metric.get("score").asDouble(),
+                    metric.get("scoreUnit").asText(),
+                    "thrpt".equals(result.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.get("benchmark").asText())
+                .append(" [").append(result.get("mode").asText())
+                .append(", threads=").append(result.get("threads").asInt());
+        JsonNode params = result.get("params");
+        if (params != null) {
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                key.append(", ").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+        }
+        return key.append(']').toString();
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {}
+}
@@ -0,0 +1,98 @@
+package com.edu.atividade.benchmark;
+
+import com.edu.atividade.config.JwtAuthenticationFilter;
+import com.edu.atividade.datasource.ReadRouting;
+import com.edu.atividade.logging.SecurityEventLogger;
+import com.edu.atividade.metrics.AuthMetrics;
+import com.edu.atividade.model.CustomUserDetails;
+import com.edu.atividade.model.Role;
+import com.edu.atividade.model.User;
+import com.edu.atividade.repository.UserRepository;
+import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.TokenRevocationService;
+import com.edu.atividade.service.TokenVersionService;
+import com.edu.atividade.service.VerifiedTokenCache;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of an authenticated request through {@link JwtAuthenticationFilter}, with the user
+ * lookup stubbed in memory so the numbers reflect token handling and principal construction.
+ * Each invocation also builds a fresh mock request and response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    @Param({"false", "true"})
+    public boolean verifiedTokenCache;
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        User user = new User(1L, "benchmark-user", "benchmark@example.com", "{noop}x", Role.ROLE_USER);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        UserDetailsService userDetailsService = username -> userDetails;
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+        TokenVersionService tokenVersionService = new TokenVersionService(userRepository, ReadRouting.disabled(), 3_600_000L, 1_000);
+
+        VerifiedTokenCache cache = verifiedTokenCache
+                ? new VerifiedTokenCache(true, 10_000, 300_000)
+                : VerifiedTokenCache.disabled();
+        JwtService jwtService = new JwtService(SECRET, List.of(), 3_600_000L, cache);
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenVersionService,
+                new TokenRevocationService(3_600_000L, 16), statelessPrincipal,
+                AuthMetrics.disabled(), SecurityEventLogger.disabled());
+        authorizationHeader = "Bearer " + jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        return filterOnce();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object doFilterContended() throws Exception {
+        return filterOnce();
+    }
+
+    private Object filterOnce() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/profile");
+        request.addHeader("Authorization", authorizationHeader);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
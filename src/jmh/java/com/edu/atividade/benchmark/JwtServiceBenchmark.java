@@ -0,0 +1,90 @@
+package com.edu.atividade.benchmark;
+
+import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.TokenValidation;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and the claim-extraction paths of {@link JwtService} across claim counts and
+ * claim sizes, single-threaded and with every core contending for the same service instance.
+ * The verified-token cache is off so every call does the full parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Param({"0", "8", "32"})
+    public int claimCount;
+
+    @Param({"16", "256"})
+    public int claimSize;
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private Map<String, Object> extraClaims;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, List.of(), 3_600_000L);
+        user = User.withUsername("benchmark-user").password("x").roles("USER").build();
+        extraClaims = new HashMap<>();
+        String value = "v".repeat(claimSize);
+        for (int i = 0; i < claimCount; i++) {
+            extraClaims.put("claim" + i, value);
+        }
+        token = jwtService.generateToken(new HashMap<>(extraClaims), user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(new HashMap<>(extraClaims), user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public Date extractClaimExpiration() {
+        return jwtService.extractClaim(token, Claims::getExpiration);
+    }
+
+    @Benchmark
+    public TokenValidation validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateTokenContended() {
+        return jwtService.generateToken(new HashMap<>(extraClaims), user);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public TokenValidation validateTokenContended() {
+        return jwtService.validateToken(token);
+    }
+}
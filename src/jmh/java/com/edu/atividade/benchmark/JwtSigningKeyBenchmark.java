@@ -0,0 +1,88 @@
+package com.edu.atividade.benchmark;
+
+import com.edu.atividade.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building the HMAC key and parser on every call (the original JwtService behaviour)
+ * with the key ring that is built once at startup, and HS256 with ES256 signing and verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtSigningKeyBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final long EXPIRATION = 86400000L;
+
+    private JwtService jwtService;
+    private JwtService es256Service;
+    private UserDetails user;
+    private String token;
+    private String es256Token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, List.of(), EXPIRATION);
+        user = User.withUsername("benchmark-user").password("x").roles("USER").build();
+        token = jwtService.generateToken(user);
+        es256Service = new JwtService(Keys.keyPairFor(SignatureAlgorithm.ES256), List.of(), EXPIRATION);
+        es256Token = es256Service.generateToken(user);
+    }
+
+    @Benchmark
+    public String parsePerCallKeyAndParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String parseCachedKeyRing() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public String signPerCallKey() {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + EXPIRATION))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String signCachedKeyRing() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String signEs256() {
+        return es256Service.generateToken(user);
+    }
+
+    @Benchmark
+    public String parseEs256() {
+        return es256Service.extractUsername(es256Token);
+    }
+}
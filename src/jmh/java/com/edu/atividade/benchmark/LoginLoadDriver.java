@@ -0,0 +1,139 @@
+package com.edu.atividade.benchmark;
+
+import com.edu.atividade.AtividadeApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Boots the application on a random port and fires concurrent logins at it over HTTP, once with
+ * platform request threads and once in the "virtual" profile, then prints throughput and latency.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.edu.atividade.benchmark.LoginLoadDriver -Djmh.args="10000 4"
+ * </pre>
+ * Arguments: number of concurrent logins (default 10000) and BCrypt strength (default 4, so the run
+ * measures request handling rather than hashing; use 10 for production cost).
+ */
+public final class LoginLoadDriver {
+
+    private static final String CREDENTIALS = "{\"username\":\"loaduser\",\"password\":\"password123\"}";
+    private static final String REGISTRATION = "{\"username\":\"loaduser\",\"email\":\"loaduser@example.com\",\"password\":\"password123\"}";
+
+    private LoginLoadDriver() {}
+
+    public static void main(String[] args) throws Exception {
+        int logins = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int bcryptStrength = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        for (boolean virtual : new boolean[] {false, true}) {
+            run(virtual, logins, bcryptStrength);
+        }
+    }
+
+    private static void run(boolean virtual, int logins, int bcryptStrength) throws Exception {
+        // Passed as command-line arguments so they take precedence over application.properties
+        String[] overrides = {
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + (logins + 100),
+                "--server.tomcat.accept-count=" + logins,
+                "--spring.mvc.async.request-timeout=300000",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--auth.password.bcrypt-strength=" + bcryptStrength,
+                "--auth.password-hashing.queue-capacity=" + logins,
+                // One account from one address: measure hashing throughput, not the login throttle
+                "--auth.rate-limit.enabled=false"
+        };
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(AtividadeApplication.class);
+        if (virtual) {
+            builder.profiles("virtual");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run(overrides)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(clientThreads)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .build();
+                client.send(post(baseUrl + "/api/auth/register", REGISTRATION), HttpResponse.BodyHandlers.discarding());
+                // Warm up the JIT and the connection paths before measuring
+                fire(client, clientThreads, baseUrl, Math.min(logins, 500));
+
+                long start = System.nanoTime();
+                Result result = fire(client, clientThreads, baseUrl, logins);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                long[] latencies = result.latenciesNanos();
+                Arrays.sort(latencies);
+                System.out.printf("%-8s logins=%d  throughput=%.0f/s  p50=%.1fms  p99=%.1fms  max=%.1fms  status=%s%n",
+                        virtual ? "virtual" : "platform",
+                        logins,
+                        logins / seconds,
+                        percentile(latencies, 0.50),
+                        percentile(latencies, 0.99),
+                        latencies[latencies.length - 1] / 1e6,
+                        new TreeMap<>(result.statuses()));
+            }
+        }
+    }
+
+    private static Result fire(HttpClient client, ExecutorService threads, String baseUrl, int logins) throws InterruptedException {
+        long[] latencies = new long[logins];
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>(logins);
+        for (int i = 0; i < logins; i++) {
+            tasks.add(() -> {
+                int slot = next.getAndIncrement();
+                long start = System.nanoTime();
+                int status;
+                try {
+                    status = client.send(post(baseUrl + "/api/auth/login", CREDENTIALS), HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (Exception e) {
+                    status = -1;
+                }
+                latencies[slot] = System.nanoTime() - start;
+                statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                return null;
+            });
+        }
+        threads.invokeAll(tasks);
+        Map<Integer, Integer> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.get()));
+        return new Result(latencies, counts);
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(5))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1e6;
+    }
+
+    private record Result(long[] latenciesNanos, Map<Integer, Integer> statuses) {}
+}
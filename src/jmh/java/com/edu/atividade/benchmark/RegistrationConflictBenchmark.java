@@ -0,0 +1,89 @@
+package com.edu.atividade.benchmark;
+
+import com.edu.atividade.AtividadeApplication;
+import com.edu.atividade.controller.GlobalExceptionHandler;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.service.UserConflictException;
+import com.edu.atividade.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A taken username, against the real application and its in-memory H2 database, up to the 409 the client
+ * gets. {@code duplicateRegistration} is the common case, refused by the indexed pre-check before any hash.
+ * {@code constraintConflict} is what two registrations racing past that check pay: the insert hits the unique
+ * constraint, and the JDBC, Hibernate and Spring exceptions are all built with stack traces before
+ * UserService turns them into a conflict. It goes through a profile update, which uses the same save path
+ * without hashing a password. Run with {@code -prof gc} to see the allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegistrationConflictBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private GlobalExceptionHandler exceptionHandler;
+    private UserRegistrationDto duplicate;
+    private UserRegistrationDto renameToTaken;
+    private Long otherUserId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AtividadeApplication.class).run(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--auth.password.bcrypt-strength=4");
+        userService = context.getBean(UserService.class);
+        exceptionHandler = context.getBean(GlobalExceptionHandler.class);
+
+        userService.registerUser(registration("taken", "taken@example.com"));
+        otherUserId = userService.registerUser(registration("other", "other@example.com")).getId();
+        duplicate = registration("Taken", "new@example.com");
+        // No password, so the update does not hash; it only tries to take the existing username
+        renameToTaken = registration("taken", "other@example.com");
+        renameToTaken.setPassword(null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> duplicateRegistration() {
+        try {
+            return ResponseEntity.ok(userService.registerUser(duplicate));
+        } catch (UserConflictException e) {
+            return exceptionHandler.handleUserConflictException(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> constraintConflict() {
+        try {
+            return ResponseEntity.ok(userService.updateUser(otherUserId, renameToTaken));
+        } catch (UserConflictException e) {
+            return exceptionHandler.handleUserConflictException(e);
+        }
+    }
+
+    private static UserRegistrationDto registration(String username, String email) {
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(username);
+        dto.setEmail(email);
+        dto.setPassword("password123");
+        return dto;
+    }
+}
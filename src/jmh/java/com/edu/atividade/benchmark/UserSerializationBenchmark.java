@@ -0,0 +1,65 @@
+package com.edu.atividade.benchmark;
+
+import com.edu.atividade.dto.UserProfileDto;
+import com.edu.atividade.model.Role;
+import com.edu.atividade.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second serialized by the user listing: the {@link User} entity it used to return, which
+ * Jackson walks as a {@code UserDetails} bean (authorities list, account flags, password hash), against
+ * the {@link UserProfileDto} record the repository now projects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserSerializationBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private ObjectWriter writer;
+    private List<User> entities;
+    private List<UserProfileDto> profiles;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        entities = new ArrayList<>(ROWS);
+        profiles = new ArrayList<>(ROWS);
+        for (long id = 1; id <= ROWS; id++) {
+            User user = new User(id, "user" + id, "user" + id + "@example.com",
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7xLQnYH6ZxWq2V5tTzzjVHe", Role.ROLE_USER);
+            entities.add(user);
+            profiles.add(UserProfileDto.from(user));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void entities() throws Exception {
+        writer.writeValue(OutputStream.nullOutputStream(), entities);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void projections() throws Exception {
+        writer.writeValue(OutputStream.nullOutputStream(), profiles);
+    }
+}
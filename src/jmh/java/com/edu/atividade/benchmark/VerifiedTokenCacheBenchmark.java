@@ -0,0 +1,52 @@
+package com.edu.atividade.benchmark;
+
+import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.TokenValidation;
+import com.edu.atividade.service.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a repeated bearer token with and without the verified-token cache.
+ * Run with {@code -prof gc} to see the allocation rate of the hit path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VerifiedTokenCacheBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService uncached;
+    private JwtService cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        UserDetails user = User.withUsername("benchmark-user").password("x").roles("USER").build();
+        uncached = new JwtService(SECRET, List.of(), 3_600_000L);
+        cached = new JwtService(SECRET, List.of(), 3_600_000L, new VerifiedTokenCache(true, 10_000, 300_000));
+        token = cached.generateToken(user);
+        cached.validateToken(token);
+    }
+
+    @Benchmark
+    public TokenValidation validateUncached() {
+        return uncached.validateToken(token);
+    }
+
+    @Benchmark
+    public TokenValidation validateCacheHit() {
+        return cached.validateToken(token);
+    }
+}
@@ -0,0 +1,120 @@
+package com.edu.atividade.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrent map capped by entry count where every entry carries its own expiry. Reads never lock;
+ * when a put pushes the size over the cap, expired entries are dropped first and then arbitrary ones.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long defaultTtlMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, long defaultTtlMillis) {
+        this(maxSize, defaultTtlMillis, System::currentTimeMillis);
+    }
+
+    public BoundedCache(int maxSize, long defaultTtlMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        put(key, value, clock.getAsLong() + defaultTtlMillis);
+    }
+
+    /**
+     * Stores {@code value} until {@code expiresAt} (epoch millis) or until it is evicted, whichever comes first.
+     */
+    public void put(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+        if (entries.size() > maxSize) {
+            trim();
+        }
+    }
+
+    public void invalidate(K key) {
+        if (entries.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    public void clear() {
+        evictions.add(entries.size());
+        entries.clear();
+    }
+
+    /**
+     * Drops every expired entry; meant to be called periodically for caches with sparse writes.
+     */
+    public void removeExpired() {
+        long now = clock.getAsLong();
+        entries.forEach((key, entry) -> {
+            if (entry.expiresAt() <= now && entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            removeExpired();
+            // Evict a little below the cap so a full cache does not trim on every put
+            int target = maxSize - Math.max(1, maxSize / 10);
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (entries.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
@@ -0,0 +1,3 @@
+package com.edu.atividade.cache;
+
+public record CacheStats(long hits, long misses, long evictions, int size) {}
@@ -0,0 +1,259 @@
+package com.edu.atividade.cache;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrent map from non-zero long keys to epoch-second timestamps, kept in primitive arrays: a slot is a
+ * long key plus an int timestamp (unsigned, good until 2106), with no boxing and no node per entry. Keys are
+ * spread over striped open-addressing tables, each guarded by a {@link StampedLock}, so a lookup is an
+ * optimistic read of a few adjacent slots and only retries under the read lock if a writer got in the way.
+ * A stripe's two slot arrays sit in one {@code Table} behind a single field, so an optimistic reader racing a
+ * resize always sees a key array and a timestamp array of the same length.
+ * <p>
+ * An entry stops counting {@code retainSeconds} after its timestamp. Expired entries are dropped when their
+ * stripe grows and by {@link #removeExpired()}, which also shrinks stripes that emptied out.
+ */
+public class LongTimestampMap {
+
+    public static final long ABSENT = -1L;
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+    private static final long ARRAY_HEADER_BYTES = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final long retainSeconds;
+    private final LongSupplier clock;
+
+    public LongTimestampMap(int stripes, long retainSeconds) {
+        this(stripes, retainSeconds, System::currentTimeMillis);
+    }
+
+    public LongTimestampMap(int stripes, long retainSeconds, LongSupplier clock) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a positive power of two");
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripes);
+        this.retainSeconds = retainSeconds;
+        this.clock = clock;
+    }
+
+    /**
+     * Stores {@code timestamp} (epoch seconds) for {@code key}; an existing later timestamp is kept.
+     */
+    public void put(long key, long timestamp) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("key must not be 0");
+        }
+        long hash = mix(key);
+        Stripe stripe = stripe(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            stripe.put(key, (int) timestamp, (int) hash, nowSeconds() - retainSeconds);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * The timestamp stored for {@code key}, or {@link #ABSENT} when there is none or it has expired.
+     */
+    public long get(long key) {
+        if (key == EMPTY) {
+            return ABSENT;
+        }
+        long hash = mix(key);
+        Stripe stripe = stripe(hash);
+        long stamp = stripe.lock.tryOptimisticRead();
+        long timestamp = stripe.find(key, (int) hash);
+        if (!stripe.lock.validate(stamp)) {
+            stamp = stripe.lock.readLock();
+            try {
+                timestamp = stripe.find(key, (int) hash);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return timestamp != ABSENT && timestamp + retainSeconds > nowSeconds() ? timestamp : ABSENT;
+    }
+
+    public boolean contains(long key) {
+        return get(key) != ABSENT;
+    }
+
+    /**
+     * Drops every expired entry and returns how many were removed.
+     */
+    public int removeExpired() {
+        long cutoff = nowSeconds() - retainSeconds;
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                removed += stripe.rebuild(cutoff, 0);
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Entries currently held, including expired ones not yet removed.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Bytes held by the slot arrays (the only part that grows with the number of entries).
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                bytes += 2 * ARRAY_HEADER_BYTES + (long) stripe.table.keys.length * (Long.BYTES + Integer.BYTES);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return bytes;
+    }
+
+    private Stripe stripe(long hash) {
+        return stripes[stripes.length == 1 ? 0 : (int) (hash >>> stripeShift)];
+    }
+
+    private long nowSeconds() {
+        return clock.getAsLong() / 1000;
+    }
+
+    // Fibonacci hashing: sequential user ids land far apart; high bits pick the stripe, low bits the slot
+    private static long mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    // Slot arrays of one size; a resize swaps in a new table instead of replacing the arrays one by one
+    private static final class Table {
+
+        private final long[] keys;
+        private final int[] timestamps;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.timestamps = new int[capacity];
+        }
+    }
+
+    private static final class Stripe {
+
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(MIN_CAPACITY);
+        private int size;
+
+        // Bounded by the capacity so a read racing a writer always terminates; the caller validates the stamp
+        private long find(long key, int hash) {
+            Table table = this.table;
+            long[] keys = table.keys;
+            int[] timestamps = table.timestamps;
+            int mask = keys.length - 1;
+            for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                long slot = keys[i];
+                if (slot == key) {
+                    return Integer.toUnsignedLong(timestamps[i]);
+                }
+                if (slot == EMPTY) {
+                    return ABSENT;
+                }
+            }
+            return ABSENT;
+        }
+
+        private void put(long key, int timestamp, int hash, long cutoff) {
+            long[] keys = table.keys;
+            int[] timestamps = table.timestamps;
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    if (Integer.compareUnsigned(timestamp, timestamps[i]) > 0) {
+                        timestamps[i] = timestamp;
+                    }
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            // Keep the load factor at or below 3/4 so probe runs stay short
+            if ((size + 1) * 4L > keys.length * 3L) {
+                rebuild(cutoff, 1);
+                put(key, timestamp, hash, cutoff);
+                return;
+            }
+            keys[i] = key;
+            timestamps[i] = timestamp;
+            size++;
+        }
+
+        // Rehashes the live entries into arrays sized for them plus {@code extra}; returns how many were dropped
+        private int rebuild(long cutoff, int extra) {
+            long[] keys = table.keys;
+            int[] timestamps = table.timestamps;
+            int live = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && Integer.toUnsignedLong(timestamps[i]) > cutoff) {
+                    live++;
+                }
+            }
+            int removed = size - live;
+            int capacity = capacityFor(live + extra);
+            if (removed == 0 && capacity == keys.length) {
+                return 0;
+            }
+            Table rebuilt = new Table(capacity);
+            long[] newKeys = rebuilt.keys;
+            int[] newTimestamps = rebuilt.timestamps;
+            int mask = capacity - 1;
+            for (int i = 0; i < keys.length; i++) {
+                long key = keys[i];
+                if (key != EMPTY && Integer.toUnsignedLong(timestamps[i]) > cutoff) {
+                    int j = (int) mix(key) & mask;
+                    while (newKeys[j] != EMPTY) {
+                        j = (j + 1) & mask;
+                    }
+                    newKeys[j] = key;
+                    newTimestamps[j] = timestamps[i];
+                }
+            }
+            table = rebuilt;
+            size = live;
+            return removed;
+        }
+
+        // Smallest power of two that holds {@code entries} at a load factor of at most 1/2, so a table that
+        // just grew has room for as many entries again before the next rebuild
+        private static int capacityFor(int entries) {
+            int capacity = MIN_CAPACITY;
+            while (capacity < entries * 2L) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+    }
+}
@@ -1,30 +1,71 @@
 package com.edu.atividade.config;
 
+import com.edu.atividade.logging.SecurityEventLogger;
+import com.edu.atividade.metrics.AuthMetrics;
+import com.edu.atividade.metrics.AuthMetrics.FilterOutcome;
+import com.edu.atividade.model.CustomUserDetails;
+import com.edu.atividade.model.Role;
+import com.edu.atividade.model.User;
 import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.TokenRevocationService;
+import com.edu.atividade.service.TokenValidation;
+import com.edu.atividade.service.TokenVersionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final byte[] MALFORMED_TOKEN_BODY = "{\"error\":\"Invalid token\"}".getBytes(StandardCharsets.UTF_8);
+    private static final RequestMatcher PUBLIC_PATHS = new OrRequestMatcher(Arrays.stream(SecurityConfig.PUBLIC_PATHS)
+            .<RequestMatcher>map(AntPathRequestMatcher::antMatcher)
+            .toList());
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean statelessPrincipal;
+    private final AuthMetrics metrics;
+    private final SecurityEventLogger securityLog;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            TokenVersionService tokenVersionService,
+            TokenRevocationService tokenRevocationService,
+            @Value("${jwt.stateless-principal:false}") boolean statelessPrincipal,
+            AuthMetrics metrics,
+            SecurityEventLogger securityLog
+    ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessPrincipal = statelessPrincipal;
+        this.metrics = metrics;
+        this.securityLog = securityLog;
     }
 
     @Override
@@ -34,21 +75,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
+        final TokenValidation validation;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Validated in place: no substring unless the token actually has to be parsed
+        validation = jwtService.validateToken(authHeader, BEARER_PREFIX.length());
+
+        if (!validation.isValid()) {
+            metrics.countFilter(FilterOutcome.INVALID_TOKEN);
+            securityLog.tokenRejected(validation.status(), null, request.getRemoteAddr());
+            if (validation.status() == TokenValidation.Status.MALFORMED && !PUBLIC_PATHS.matches(request)) {
+                // Not one of our tokens: answer now instead of running the rest of the chain anonymously.
+                // Public endpoints go on without it, so a stale header cannot block a login or a health check
+                rejectMalformed(response);
+                return;
+            }
+        } else if (tokenRevocationService.isRevoked(validation)) {
+            metrics.countFilter(FilterOutcome.REVOKED);
+            securityLog.tokenRejected(FilterOutcome.REVOKED, validation.subject(), request.getRemoteAddr());
+        } else if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = statelessPrincipal ? principalFromClaims(validation) : loadUser(validation.subject());
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails == null || !userDetails.getUsername().equals(validation.subject())) {
+                FilterOutcome outcome = !statelessPrincipal ? FilterOutcome.UNKNOWN_USER
+                        : roleOf(validation) == null ? FilterOutcome.INVALID_TOKEN : FilterOutcome.REVOKED;
+                metrics.countFilter(outcome);
+                securityLog.tokenRejected(outcome, validation.subject(), request.getRemoteAddr());
+            } else {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null,
@@ -56,8 +113,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                metrics.countFilter(FilterOutcome.AUTHENTICATED);
             }
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    private static void rejectMalformed(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(MALFORMED_TOKEN_BODY.length);
+        response.getOutputStream().write(MALFORMED_TOKEN_BODY);
+    }
+
+    private UserDetails principalFromClaims(TokenValidation validation) {
+        Long userId = validation.userId();
+        Integer tokenVersion = validation.tokenVersion();
+        Role role = roleOf(validation);
+        if (userId == null || tokenVersion == null || role == null
+                || !tokenVersionService.isCurrent(userId, tokenVersion)) {
+            return null;
+        }
+        User user = new User(userId, validation.subject(), null, null, role);
+        user.setTokenVersion(tokenVersion);
+        return new CustomUserDetails(user);
+    }
+
+    // A missing or unknown role leaves the request anonymous rather than failing inside the filter
+    private static Role roleOf(TokenValidation validation) {
+        if (validation.roles().isEmpty()) {
+            return null;
+        }
+        String name = validation.roles().get(0);
+        for (Role role : Role.values()) {
+            if (role.name().equals(name)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    private UserDetails loadUser(String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            // Token outlived its user; the request simply stays unauthenticated
+            return null;
+        }
+    }
+}
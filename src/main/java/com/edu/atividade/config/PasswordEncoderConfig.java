@@ -0,0 +1,109 @@
+package com.edu.atividade.config;
+
+import com.edu.atividade.metrics.AuthMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Password encoder that hashes with the configured algorithm and still verifies hashes from the others,
+ * including the unprefixed BCrypt hashes written before the delegating encoder existed. When a target
+ * latency is set, the BCrypt or Argon2 work factor is calibrated on this machine at startup. Both record
+ * their cost in the hash, so hashes below the current target are detected and upgraded on login.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+    static final String PBKDF2 = "pbkdf2";
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password.algorithm:bcrypt}") String algorithm,
+            @Value("${auth.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${auth.password.target-latency-ms:0}") long targetLatencyMs,
+            AuthMetrics metrics
+    ) {
+        return metrics.instrument(create(algorithm, bcryptStrength, targetLatencyMs));
+    }
+
+    public static PasswordEncoder create(String algorithm, int bcryptStrength, long targetLatencyMs) {
+        String idForEncode = algorithm.toLowerCase(Locale.ROOT);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put(ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put(PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalStateException("Unsupported auth.password.algorithm: " + algorithm);
+        }
+        if (targetLatencyMs > 0) {
+            encoders.put(idForEncode, calibrate(idForEncode, bcryptStrength, targetLatencyMs));
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
+    }
+
+    private static PasswordEncoder calibrate(String algorithm, int bcryptStrength, long targetLatencyMs) {
+        PasswordEncoder encoder = switch (algorithm) {
+            // Every extra BCrypt round doubles the cost
+            case BCRYPT -> {
+                int base = Math.max(bcryptStrength, MIN_BCRYPT_STRENGTH);
+                double ratio = targetLatencyMs / measure(new BCryptPasswordEncoder(base));
+                int strength = base + (int) Math.floor(Math.log(Math.max(ratio, 1)) / Math.log(2));
+                yield new BCryptPasswordEncoder(Math.min(strength, MAX_BCRYPT_STRENGTH));
+            }
+            // PBKDF2 hashes do not record their iteration count, so it must stay fixed across restarts
+            case PBKDF2 -> {
+                log.warn("auth.password.target-latency-ms is ignored for pbkdf2; using fixed iterations");
+                yield Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+            }
+            case ARGON2 -> scaleLinearly(MIN_ARGON2_ITERATIONS, targetLatencyMs,
+                    iterations -> new Argon2PasswordEncoder(16, 32, 1, 1 << 14, iterations));
+            default -> throw new IllegalStateException("Unsupported algorithm: " + algorithm);
+        };
+        log.info("Password encoder {} calibrated to {} ms: {} ms per hash", algorithm, targetLatencyMs, Math.round(measure(encoder)));
+        return encoder;
+    }
+
+    private static PasswordEncoder scaleLinearly(int baseIterations, long targetLatencyMs, IntFunction<PasswordEncoder> factory) {
+        double ratio = targetLatencyMs / measure(factory.apply(baseIterations));
+        int iterations = (int) Math.max(baseIterations, Math.min(Integer.MAX_VALUE, baseIterations * ratio));
+        return factory.apply(iterations);
+    }
+
+    private static double measure(PasswordEncoder encoder) {
+        encoder.encode(CALIBRATION_PASSWORD);
+        long[] samples = new long[3];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Math.max(samples[1] / 1_000_000.0, 0.001);
+    }
+}
@@ -1,7 +1,14 @@
 package com.edu.atividade.config;
 
+import com.edu.atividade.logging.SecurityEventLogger;
+import com.edu.atividade.metrics.AuthMetrics;
+import com.edu.atividade.service.CachingUserDetailsService;
 import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.TokenRevocationService;
+import com.edu.atividade.service.TokenVersionService;
 import com.edu.atividade.service.UserService;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,7 +20,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,41 +29,74 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /** Reachable without a token; the JWT filter never answers these itself. */
+    static final String[] PUBLIC_PATHS = {"/api/auth/**", "/.well-known/jwks.json", "/actuator/health"};
+
     private final JwtService jwtService;
+    private final TokenVersionService tokenVersionService;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean statelessPrincipal;
+    private final AuthMetrics metrics;
+    private final SecurityEventLogger securityLog;
 
-    public SecurityConfig(JwtService jwtService) {
+    public SecurityConfig(
+            JwtService jwtService,
+            TokenVersionService tokenVersionService,
+            TokenRevocationService tokenRevocationService,
+            @Value("${jwt.stateless-principal:false}") boolean statelessPrincipal,
+            AuthMetrics metrics,
+            SecurityEventLogger securityLog
+    ) {
         this.jwtService = jwtService;
+        this.tokenVersionService = tokenVersionService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessPrincipal = statelessPrincipal;
+        this.metrics = metrics;
+        this.securityLog = securityLog;
     }
 
     @Bean
-    public UserDetailsService userDetailsService(UserService userService) {
-        return userService;
+    public UserDetailsService userDetailsService(CachingUserDetailsService cachingUserDetailsService) {
+        return cachingUserDetailsService;
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserDetailsService userDetailsService) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            UserDetailsService userDetailsService,
+            AuthenticationProvider authenticationProvider
+    ) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.disable())
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**").permitAll()
+                // Async dispatches resume a request that was already authorized; the JWT filter does not run on them
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers(PUBLIC_PATHS).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
-            .authenticationProvider(authenticationProvider(userDetailsService))
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthenticationFilter(userDetailsService), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService) {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+    public AuthenticationProvider authenticationProvider(
+            UserDetailsService userDetailsService,
+            UserService userService,
+            PasswordEncoder passwordEncoder
+    ) {
+        DaoAuthenticationProvider authProvider = new StacklessDaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes on successful login when the stored hash is below the current algorithm/cost
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 
@@ -66,13 +105,9 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtService, userDetailsService);
+        return new JwtAuthenticationFilter(jwtService, userDetailsService, tokenVersionService, tokenRevocationService,
+                statelessPrincipal, metrics, securityLog);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.edu.atividade.config;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * {@link DaoAuthenticationProvider} whose wrong-password and unknown-user failures are
+ * {@link BadCredentialsException}s without a stack trace or message lookup. Under credential stuffing nearly
+ * every login fails, and the stock provider fills a fresh stack trace for each one. The timing-attack
+ * protection for unknown users is kept: the lookup still runs the dummy password check before failing.
+ */
+public class StacklessDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private static final String BAD_CREDENTIALS = "Bad credentials";
+
+    public StacklessDaoAuthenticationProvider() {
+        // Unknown users come back as UsernameNotFoundException and are turned into bad credentials below
+        setHideUserNotFoundExceptions(false);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        try {
+            return super.authenticate(authentication);
+        } catch (UsernameNotFoundException e) {
+            throw new StacklessBadCredentialsException();
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) {
+        Object credentials = authentication.getCredentials();
+        if (credentials == null || !getPasswordEncoder().matches(credentials.toString(), userDetails.getPassword())) {
+            throw new StacklessBadCredentialsException();
+        }
+    }
+
+    private static final class StacklessBadCredentialsException extends BadCredentialsException {
+
+        private static final long serialVersionUID = 1L;
+
+        private StacklessBadCredentialsException() {
+            super(BAD_CREDENTIALS);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.edu.atividade.controller;
+
+import com.edu.atividade.cache.CacheStats;
+import com.edu.atividade.dto.UserImportResultDto;
+import com.edu.atividade.dto.UserProfileDto;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.logging.SecurityEventLogger;
+import com.edu.atividade.service.CachingUserDetailsService;
+import com.edu.atividade.service.RefreshTokenService;
+import com.edu.atividade.service.TokenRevocationService;
+import com.edu.atividade.service.TokenVersionService;
+import com.edu.atividade.service.UserImportService;
+import com.edu.atividade.service.UserService;
+import com.edu.atividade.service.VerifiedTokenCache;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final CachingUserDetailsService cachingUserDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserImportService userImportService;
+    private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final SecurityEventLogger securityLog;
+
+    public AdminController(
+            CachingUserDetailsService cachingUserDetailsService,
+            TokenVersionService tokenVersionService,
+            VerifiedTokenCache verifiedTokenCache,
+            UserImportService userImportService,
+            UserService userService,
+            TokenRevocationService tokenRevocationService,
+            RefreshTokenService refreshTokenService,
+            SecurityEventLogger securityLog
+    ) {
+        this.cachingUserDetailsService = cachingUserDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userImportService = userImportService;
+        this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.securityLog = securityLog;
+    }
+
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, CacheStats>> getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("userDetails", cachingUserDetailsService.stats());
+        stats.put("tokenVersions", tokenVersionService.stats());
+        stats.put("verifiedTokens", verifiedTokenCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResultDto> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body,
+            @AuthenticationPrincipal UserDetails admin) throws IOException {
+        UserImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        UserImportResultDto result = userImportService.importUsers(body, format);
+        securityLog.adminChange(admin.getUsername(), "import_users", result.created() + " created");
+        return ResponseEntity.ok(result);
+    }
+
+    // Creates a ROLE_INTROSPECT account for a service that needs token introspection and nothing else
+    @PostMapping("/service-accounts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserProfileDto> createServiceAccount(
+            @Valid @RequestBody UserRegistrationDto registrationDto,
+            @AuthenticationPrincipal UserDetails admin) {
+        UserProfileDto account = UserProfileDto.from(userService.registerServiceAccount(registrationDto));
+        securityLog.adminChange(admin.getUsername(), "create_service_account", account.username());
+        return ResponseEntity.ok(account);
+    }
+
+    // Ends every session of the user: issued access tokens stop working and refresh tokens are deleted
+    @PostMapping("/users/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id, @AuthenticationPrincipal UserDetails admin) {
+        tokenRevocationService.revokeAll(id);
+        refreshTokenService.revokeAll(id);
+        securityLog.adminChange(admin.getUsername(), "revoke_tokens", String.valueOf(id));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,35 +1,70 @@
 package com.edu.atividade.controller;
 
+import com.edu.atividade.dto.IntrospectionRequestDto;
 import com.edu.atividade.dto.JwtResponseDto;
+import com.edu.atividade.dto.RefreshTokenRequestDto;
+import com.edu.atividade.dto.TokenIntrospectionDto;
 import com.edu.atividade.dto.UserLoginDto;
 import com.edu.atividade.dto.UserRegistrationDto;
 import com.edu.atividade.service.AuthService;
+import com.edu.atividade.service.TokenIntrospectionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenIntrospectionService tokenIntrospectionService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, TokenIntrospectionService tokenIntrospectionService) {
         this.authService = authService;
+        this.tokenIntrospectionService = tokenIntrospectionService;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<JwtResponseDto> register(@Valid @RequestBody UserRegistrationDto registrationDto) {
-        return ResponseEntity.ok(authService.register(registrationDto));
+    public CompletableFuture<ResponseEntity<JwtResponseDto>> register(@Valid @RequestBody UserRegistrationDto registrationDto) {
+        return authService.register(registrationDto).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/register/admin")
-    public ResponseEntity<JwtResponseDto> registerAdmin(@Valid @RequestBody UserRegistrationDto registrationDto) {
-        return ResponseEntity.ok(authService.registerAdmin(registrationDto));
+    public CompletableFuture<ResponseEntity<JwtResponseDto>> registerAdmin(@Valid @RequestBody UserRegistrationDto registrationDto) {
+        return authService.registerAdmin(registrationDto).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<JwtResponseDto> login(@Valid @RequestBody UserLoginDto loginDto) {
-        return ResponseEntity.ok(authService.login(loginDto));
+    public CompletableFuture<ResponseEntity<JwtResponseDto>> login(
+            @Valid @RequestBody UserLoginDto loginDto,
+            HttpServletRequest request) {
+        return authService.login(loginDto, request.getRemoteAddr()).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponseDto> refresh(@Valid @RequestBody RefreshTokenRequestDto request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequestDto request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(accessToken, request == null ? null : request.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    // For trusted services only: an open endpoint would let anyone probe tokens in bulk
+    @PostMapping("/introspect")
+    @PreAuthorize("hasRole('INTROSPECT')")
+    public ResponseEntity<List<TokenIntrospectionDto>> introspect(@Valid @RequestBody IntrospectionRequestDto request) {
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(request.getTokens()));
     }
 } 
\ No newline at end of file
@@ -1,7 +1,16 @@
 package com.edu.atividade.controller;
 
+import com.edu.atividade.service.InvalidRefreshTokenException;
+import com.edu.atividade.service.LoginThrottledException;
+import com.edu.atividade.service.UserConflictException;
+import com.edu.atividade.service.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,21 +18,65 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import jakarta.persistence.EntityNotFoundException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    // Expected failures always get the same answer, so it is built once; the entities are read-only
+    private static final ResponseEntity<Map<String, String>> USERNAME_CONFLICT =
+            error(HttpStatus.CONFLICT, "Username already exists");
+    private static final ResponseEntity<Map<String, String>> EMAIL_CONFLICT =
+            error(HttpStatus.CONFLICT, "Email already exists");
+    private static final ResponseEntity<Map<String, String>> INVALID_REFRESH_TOKEN =
+            error(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+    private static final ResponseEntity<Map<String, String>> BAD_CREDENTIALS =
+            error(HttpStatus.UNAUTHORIZED, "Invalid username or password");
+    private static final ResponseEntity<Map<String, String>> USER_NOT_FOUND =
+            error(HttpStatus.NOT_FOUND, "User not found");
+    private static final Map<String, String> LOGIN_THROTTLED = Map.of("error", "Too many login attempts, try again later");
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
+        log.error("Unhandled exception", ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
-        if (ex.getMessage() != null && (ex.getMessage().contains("Username already exists") || ex.getMessage().contains("Email already exists"))) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
-        }
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    // Expected constraint races are translated before they get here, so whatever reaches this is a real failure
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<Map<String, String>> handleDataAccessException(DataAccessException ex) {
+        log.error("Database access failed", ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
+    }
+
+    @ExceptionHandler(UserConflictException.class)
+    public ResponseEntity<Map<String, String>> handleUserConflictException(UserConflictException ex) {
+        return ex.getField() == UserConflictException.Field.USERNAME ? USERNAME_CONFLICT : EMAIL_CONFLICT;
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex) {
+        return INVALID_REFRESH_TOKEN;
+    }
+
+    // Login failures of any kind (wrong password, unknown, disabled or locked user) look the same to the client
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> handleAuthenticationException(AuthenticationException ex) {
+        return BAD_CREDENTIALS;
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, String>> handleLoginThrottledException(LoginThrottledException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(LOGIN_THROTTLED);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException ex) {
@@ -33,6 +86,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errors);
     }
 
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleUserNotFoundException(UserNotFoundException ex) {
+        return USER_NOT_FOUND;
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleEntityNotFoundException(EntityNotFoundException ex) {
         Map<String, String> error = new HashMap<>();
@@ -40,10 +98,29 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Map<String, String>> handleAccessDeniedException(AccessDeniedException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Access denied");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Server busy, try again later");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
+        log.error("Unhandled exception", ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", "Internal server error");
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
-} 
\ No newline at end of file
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+}
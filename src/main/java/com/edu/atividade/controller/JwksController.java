@@ -0,0 +1,36 @@
+package com.edu.atividade.controller;
+
+import com.edu.atividade.service.JwtService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the public keys tokens are verified with, so other services can check them without calling us.
+ * Caches may keep the set for {@code jwt.jwks.max-age} seconds and then revalidate it with the ETag, which
+ * is answered with 304 until a key rotation changes the set.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtService jwtService;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtService jwtService, @Value("${jwt.jwks.max-age:300}") long maxAgeSeconds) {
+        this.jwtService = jwtService;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(jwtService.jwksETag())
+                .body(jwtService.jwks());
+    }
+}
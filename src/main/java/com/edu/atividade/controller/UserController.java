@@ -1,17 +1,26 @@
 package com.edu.atividade.controller;
 
 import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.logging.SecurityEventLogger;
 import com.edu.atividade.model.User;
 import com.edu.atividade.model.CustomUserDetails;
 import com.edu.atividade.service.UserService;
 import com.edu.atividade.dto.UserProfileDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -20,54 +29,94 @@ import java.util.HashMap;
 @RequestMapping("/api/users")
 public class UserController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final SecurityEventLogger securityLog;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper, SecurityEventLogger securityLog) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.securityLog = securityLog;
     }
 
     @GetMapping("/profile")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<UserProfileDto> getUserProfile(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        User user = userDetails.getUser();
-        UserProfileDto dto = new UserProfileDto(user.getId(), user.getUsername(), user.getEmail(), user.getRole().name());
-        return ResponseEntity.ok(dto);
+        // The principal may have been rebuilt from token claims, so read the stored profile
+        return ResponseEntity.ok(userService.getProfileById(userDetails.getId()));
     }
 
     @PutMapping("/profile")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<User> updateUserProfile(
-            @AuthenticationPrincipal User currentUser,
+    public ResponseEntity<UserProfileDto> updateUserProfile(
+            @AuthenticationPrincipal CustomUserDetails currentUser,
             @Valid @RequestBody UserRegistrationDto updateDto) {
         User updatedUser = userService.updateUser(currentUser.getId(), updateDto);
-        return ResponseEntity.ok(updatedUser);
+        return ResponseEntity.ok(UserProfileDto.from(updatedUser));
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<UserProfileDto>> getAllUsers(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<UserProfileDto> users = userService.getProfilesAfter(afterId, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        // A full page means there may be more; the client passes this back as afterId
+        if (users.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).id()));
+        }
+        return response.body(users);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            // One JSON object per line, written through the generator's buffer as rows come off the cursor
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                userService.forEachProfile(profile -> {
+                    try {
+                        rowWriter.writeValue(generator, profile);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+    public ResponseEntity<UserProfileDto> getUserById(@PathVariable Long id) {
+        return ResponseEntity.ok(userService.getProfileById(id));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<User> updateUser(
+    public ResponseEntity<UserProfileDto> updateUser(
             @PathVariable Long id,
-            @Valid @RequestBody UserRegistrationDto updateDto) {
+            @Valid @RequestBody UserRegistrationDto updateDto,
+            @AuthenticationPrincipal UserDetails admin) {
         User updatedUser = userService.updateUser(id, updateDto);
-        return ResponseEntity.ok(updatedUser);
+        securityLog.adminChange(admin.getUsername(), "update_user", updatedUser.getUsername());
+        return ResponseEntity.ok(UserProfileDto.from(updatedUser));
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id, @AuthenticationPrincipal UserDetails admin) {
         userService.deleteUser(id);
+        securityLog.adminChange(admin.getUsername(), "delete_user", String.valueOf(id));
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
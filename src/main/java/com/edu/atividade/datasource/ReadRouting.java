@@ -0,0 +1,131 @@
+package com.edu.atividade.datasource;
+
+import com.edu.atividade.cache.BoundedCache;
+import com.edu.atividade.model.User;
+import com.edu.atividade.service.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Decides which pool a connection comes from when a read replica is configured ({@code auth.replica.url}).
+ * Read-write transactions always use the primary; read-only ones use the replica unless they need to see a
+ * recent write. For {@code auth.replica.sticky-window} ms after a user is written, reads about that user
+ * (see {@link #primaryIf}) and every read made by whoever wrote it go to the primary, so nobody reads a
+ * replica that has not caught up with their own change.
+ */
+@Component
+public class ReadRouting {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    // Keys are user ids (Long) and normalized usernames (String)
+    private final BoundedCache<Object, Boolean> recentWrites;
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+
+    public ReadRouting(
+            @Value("${auth.replica.url:}") String replicaUrl,
+            @Value("${auth.replica.sticky-window:5000}") long stickyWindowMillis,
+            @Value("${auth.replica.sticky-max-size:10000}") int maxSize
+    ) {
+        this.enabled = StringUtils.hasText(replicaUrl);
+        this.recentWrites = new BoundedCache<>(maxSize, stickyWindowMillis);
+    }
+
+    public static ReadRouting disabled() {
+        return new ReadRouting("", 0, 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The pool for a connection requested now, counted by reason.
+     */
+    public Route route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return Route.PRIMARY;
+        }
+        if (PINNED.get() != null || isRecentlyWritten(currentUsername())) {
+            stickyReads.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        return Route.REPLICA;
+    }
+
+    /**
+     * Runs {@code read} against the primary when {@code fresh} is true. The read must not have touched the
+     * database yet in the current transaction, since the connection is chosen on first use.
+     */
+    public <T> T primaryIf(boolean fresh, Supplier<T> read) {
+        if (!fresh || PINNED.get() != null) {
+            return read.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    public boolean isRecentlyWritten(Long userId) {
+        return enabled && userId != null && recentWrites.get(userId) != null;
+    }
+
+    public boolean isRecentlyWritten(String username) {
+        return enabled && username != null && recentWrites.get(User.normalize(username)) != null;
+    }
+
+    // Runs on the writing thread once the change is committed, so the current principal is the writer.
+    // Imported users are not marked: thousands of them would evict the marks of users who just changed
+    // their own data, and nobody reads an imported user back within the window
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.userId() != null && !event.bulk()) {
+            recentWrites.put(event.userId(), Boolean.TRUE);
+        }
+        if (event.username() != null && !event.bulk()) {
+            recentWrites.put(User.normalize(event.username()), Boolean.TRUE);
+        }
+        String writer = currentUsername();
+        if (writer != null) {
+            recentWrites.put(User.normalize(writer), Boolean.TRUE);
+        }
+    }
+
+    public long writes() {
+        return writes.sum();
+    }
+
+    public long stickyReads() {
+        return stickyReads.sum();
+    }
+
+    public long replicaReads() {
+        return replicaReads.sum();
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,69 @@
+package com.edu.atividade.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Replaces the single datasource with a primary and a replica pool when {@code auth.replica.url} is set.
+ * The primary is configured by the usual {@code spring.datasource.*} properties and the replica by
+ * {@code auth.replica.*}; {@link ReadRouting} picks one per transaction.
+ */
+@Configuration
+@ConditionalOnProperty("auth.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("auth.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${auth.replica.url}") String url,
+            @Value("${auth.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${auth.replica.password:${spring.datasource.password:}}") String password
+    ) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("auth-db-replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    // Lazy proxy: Hibernate asks for a connection when the transaction begins, before Spring has marked it
+    // read-only, so the real connection (and with it the route) is only picked on the first statement
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource, ReadRouting readRouting) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return readRouting.route();
+            }
+        };
+        routing.setTargetDataSources(Map.of(
+                ReadRouting.Route.PRIMARY, primaryDataSource,
+                ReadRouting.Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,21 @@
+package com.edu.atividade.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class IntrospectionRequestDto {
+
+    public static final int MAX_TOKENS = 1000;
+
+    @NotEmpty(message = "Tokens are required")
+    @Size(max = MAX_TOKENS, message = "At most " + MAX_TOKENS + " tokens per request")
+    private List<@NotBlank(message = "Token must not be blank") String> tokens;
+
+    public IntrospectionRequestDto() {}
+
+    public List<String> getTokens() { return tokens; }
+    public void setTokens(List<String> tokens) { this.tokens = tokens; }
+}
@@ -4,12 +4,17 @@ public class JwtResponseDto {
     private String token;
     private String username;
     private String role;
+    private String refreshToken;
+    // Seconds until the access token expires
+    private long expiresIn;
 
     public JwtResponseDto() {}
-    public JwtResponseDto(String token, String username, String role) {
+    public JwtResponseDto(String token, String username, String role, String refreshToken, long expiresIn) {
         this.token = token;
         this.username = username;
         this.role = role;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
     }
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
@@ -17,4 +22,8 @@ public class JwtResponseDto {
     public void setUsername(String username) { this.username = username; }
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
-} 
\ No newline at end of file
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    public long getExpiresIn() { return expiresIn; }
+    public void setExpiresIn(long expiresIn) { this.expiresIn = expiresIn; }
+}
@@ -0,0 +1,13 @@
+package com.edu.atividade.dto;
+
+/**
+ * What one token is worth right now. {@code status} is VALID, REVOKED or the reason verification failed
+ * (EXPIRED, INVALID_SIGNATURE, MALFORMED, UNSUPPORTED); the other fields are only set for verified tokens,
+ * with {@code expiresAt} in epoch seconds.
+ */
+public record TokenIntrospectionDto(boolean active, String status, String subject, String role, Long expiresAt) {
+
+    public static TokenIntrospectionDto inactive(String status) {
+        return new TokenIntrospectionDto(false, status, null, null, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.edu.atividade.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists the first rejected lines only; {@code rejected} counts all of them.
+ */
+public record UserImportResultDto(int created, int rejected, List<LineError> errors) {
+
+    public record LineError(long line, String reason) {}
+}
@@ -1,24 +1,15 @@
 package com.edu.atividade.dto;
 
-public class UserProfileDto {
-    private Long id;
-    private String username;
-    private String email;
-    private String role;
+import com.edu.atividade.model.Role;
+import com.edu.atividade.model.User;
 
-    public UserProfileDto() {}
-    public UserProfileDto(Long id, String username, String email, String role) {
-        this.id = id;
-        this.username = username;
-        this.email = email;
-        this.role = role;
+/**
+ * Public view of a user. Repository queries build it straight from the selected columns, so listing
+ * users never materializes the entity or touches the password hash.
+ */
+public record UserProfileDto(Long id, String username, String email, Role role) {
+
+    public static UserProfileDto from(User user) {
+        return new UserProfileDto(user.getId(), user.getUsername(), user.getEmail(), user.getRole());
     }
-    public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
-    public String getUsername() { return username; }
-    public void setUsername(String username) { this.username = username; }
-    public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
-    public String getRole() { return role; }
-    public void setRole(String role) { this.role = role; }
-} 
\ No newline at end of file
+}
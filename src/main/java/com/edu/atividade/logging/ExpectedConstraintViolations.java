@@ -0,0 +1,54 @@
+package com.edu.atividade.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.function.Supplier;
+
+/**
+ * Logback turbo filter, registered in logback-spring.xml, that drops Hibernate's SQL error lines only
+ * while the current thread runs an insert whose unique-constraint violation is expected and handled,
+ * such as a registration that lost a race for a username. Hibernate logs the violation, submitted email
+ * included, at WARN/ERROR before the caller can turn it into a 409. Outside {@link #expect} nothing is
+ * filtered, and an unexpected failure inside it still propagates to the caller as an exception.
+ */
+public class ExpectedConstraintViolations extends TurboFilter {
+
+    private static final String SQL_EXCEPTION_LOGGER = "org.hibernate.engine.jdbc.spi.SqlExceptionHelper";
+    private static final String BATCH_LOGGER = "org.hibernate.orm.jdbc.batch";
+    private static final ThreadLocal<Boolean> EXPECTED = new ThreadLocal<>();
+
+    /**
+     * Runs {@code action} with Hibernate's SQL error logging silenced on this thread.
+     */
+    public static <T> T expect(Supplier<T> action) {
+        Boolean previous = EXPECTED.get();
+        EXPECTED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                EXPECTED.remove();
+            }
+        }
+    }
+
+    public static void expect(Runnable action) {
+        expect(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (EXPECTED.get() == null) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        return name.equals(SQL_EXCEPTION_LOGGER) || name.equals(BATCH_LOGGER) ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
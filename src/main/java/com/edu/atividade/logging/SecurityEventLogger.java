@@ -0,0 +1,135 @@
+package com.edu.atividade.logging;
+
+import com.edu.atividade.metrics.AuthMetrics.LoginOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Structured log of security events on the {@value #LOGGER_NAME} logger, which logback-spring.xml sends
+ * through its own bounded async appender. Each event type is sampled: only one in every N events of that
+ * type is written (1 = all, 0 = none), and the line carries {@code sample=N} so counts can be scaled back
+ * up. Events that are not sampled cost one counter increment and build no log record.
+ */
+@Component
+public class SecurityEventLogger {
+
+    public static final String LOGGER_NAME = "security";
+
+    public enum EventType { LOGIN_SUCCESS, LOGIN_FAILURE, TOKEN_REJECTED, ADMIN_CHANGE }
+
+    private static final Logger log = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private final int[] sampleEvery;
+    private final AtomicLongArray seen;
+
+    public SecurityEventLogger(
+            @Value("${auth.security-log.sample.login-success:1}") int loginSuccess,
+            @Value("${auth.security-log.sample.login-failure:1}") int loginFailure,
+            @Value("${auth.security-log.sample.token-rejected:1}") int tokenRejected,
+            @Value("${auth.security-log.sample.admin-change:1}") int adminChange
+    ) {
+        this.sampleEvery = new int[EventType.values().length];
+        sampleEvery[EventType.LOGIN_SUCCESS.ordinal()] = loginSuccess;
+        sampleEvery[EventType.LOGIN_FAILURE.ordinal()] = loginFailure;
+        sampleEvery[EventType.TOKEN_REJECTED.ordinal()] = tokenRejected;
+        sampleEvery[EventType.ADMIN_CHANGE.ordinal()] = adminChange;
+        this.seen = new AtomicLongArray(sampleEvery.length);
+    }
+
+    public static SecurityEventLogger disabled() {
+        return new SecurityEventLogger(0, 0, 0, 0);
+    }
+
+    public void loginSucceeded(String username) {
+        if (sampled(EventType.LOGIN_SUCCESS)) {
+            event(EventType.LOGIN_SUCCESS)
+                    .addKeyValue("user", clean(username))
+                    .log();
+        }
+    }
+
+    public void loginFailed(String username, LoginOutcome reason) {
+        if (sampled(EventType.LOGIN_FAILURE)) {
+            event(EventType.LOGIN_FAILURE)
+                    .addKeyValue("user", clean(username))
+                    .addKeyValue("reason", name(reason))
+                    .log();
+        }
+    }
+
+    /**
+     * A bearer token the filter did not accept; {@code subject} is null when the token itself was invalid.
+     */
+    public void tokenRejected(Enum<?> reason, String subject, String remoteAddress) {
+        if (sampled(EventType.TOKEN_REJECTED)) {
+            event(EventType.TOKEN_REJECTED)
+                    .addKeyValue("reason", name(reason))
+                    .addKeyValue("user", clean(subject))
+                    .addKeyValue("ip", clean(remoteAddress))
+                    .log();
+        }
+    }
+
+    /**
+     * A change to accounts or roles; {@code actor} is null when it came from a public endpoint.
+     */
+    public void adminChange(String actor, String action, String target) {
+        if (sampled(EventType.ADMIN_CHANGE)) {
+            event(EventType.ADMIN_CHANGE)
+                    .addKeyValue("actor", clean(actor))
+                    .addKeyValue("action", action)
+                    .addKeyValue("target", clean(target))
+                    .log();
+        }
+    }
+
+    private boolean sampled(EventType type) {
+        int every = sampleEvery[type.ordinal()];
+        if (every <= 0 || !log.isInfoEnabled()) {
+            return false;
+        }
+        return every == 1 || seen.getAndIncrement(type.ordinal()) % every == 0;
+    }
+
+    private LoggingEventBuilder event(EventType type) {
+        return log.atInfo()
+                .setMessage(name(type))
+                .addKeyValue("event", name(type))
+                .addKeyValue("sample", sampleEvery[type.ordinal()]);
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name().toLowerCase(Locale.ROOT);
+    }
+
+    // Values come from requests: cap their length and replace quotes and control characters, so a value
+    // can neither end its own quoted field nor break the event over several lines
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        int length = Math.min(value.length(), MAX_VALUE_LENGTH);
+        for (int i = 0; i < length; i++) {
+            if (unsafe(value.charAt(i))) {
+                StringBuilder cleaned = new StringBuilder(length);
+                for (int j = 0; j < length; j++) {
+                    char c = value.charAt(j);
+                    cleaned.append(unsafe(c) ? '_' : c);
+                }
+                return cleaned.toString();
+            }
+        }
+        return length == value.length() ? value : value.substring(0, length);
+    }
+
+    private static boolean unsafe(char c) {
+        return c == '"' || Character.isISOControl(c);
+    }
+}
@@ -0,0 +1,189 @@
+package com.edu.atividade.metrics;
+
+import com.edu.atividade.service.TokenValidation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the authentication paths. Every meter is registered up front and looked up
+ * by enum ordinal, so recording never builds tags or allocates. Callers take {@link #start()} before the
+ * work and pass it to the matching {@code record} method; when metrics are disabled {@code start()} skips
+ * the clock read and every {@code record} returns immediately.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum LoginOutcome { SUCCESS, BAD_CREDENTIALS, DISABLED, LOCKED, EXPIRED, THROTTLED, REJECTED, ERROR }
+
+    public enum RegistrationOutcome { SUCCESS, CONFLICT, REJECTED, ERROR }
+
+    public enum FilterOutcome { AUTHENTICATED, INVALID_TOKEN, REVOKED, UNKNOWN_USER }
+
+    public enum RefreshOutcome { SUCCESS, UNKNOWN, EXPIRED, REUSED, STALE }
+
+    private final boolean enabled;
+    private final Timer tokenGenerate;
+    private final Timer[] tokenVerify;
+    private final Timer passwordHash;
+    private final Timer passwordMatch;
+    private final Timer userLoad;
+    private final Counter[] logins;
+    private final Counter[] registrations;
+    private final Counter[] filterRequests;
+    private final Counter[] refreshes;
+
+    public AuthMetrics(MeterRegistry registry, @Value("${auth.metrics.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            this.tokenGenerate = null;
+            this.tokenVerify = null;
+            this.passwordHash = null;
+            this.passwordMatch = null;
+            this.userLoad = null;
+            this.logins = null;
+            this.registrations = null;
+            this.filterRequests = null;
+            this.refreshes = null;
+            return;
+        }
+        this.tokenGenerate = timer(registry, "auth.token.generate", "Time to build and sign a JWT");
+        TokenValidation.Status[] statuses = TokenValidation.Status.values();
+        this.tokenVerify = new Timer[statuses.length];
+        for (TokenValidation.Status status : statuses) {
+            tokenVerify[status.ordinal()] = timer(registry, "auth.token.verify",
+                    "Time to parse a JWT and verify its signature and expiry", "result", tag(status));
+        }
+        this.passwordHash = timer(registry, "auth.password.hash", "Time to hash a new password");
+        this.passwordMatch = timer(registry, "auth.password.match", "Time to check a password against its hash");
+        this.userLoad = timer(registry, "auth.user.load", "Time to load a user from the database");
+        this.logins = counters(registry, "auth.login", "Login attempts by outcome", LoginOutcome.values());
+        this.registrations = counters(registry, "auth.registration", "Registrations by outcome", RegistrationOutcome.values());
+        this.filterRequests = counters(registry, "auth.filter", "Bearer-token requests by outcome", FilterOutcome.values());
+        this.refreshes = counters(registry, "auth.refresh", "Refresh-token exchanges by outcome", RefreshOutcome.values());
+    }
+
+    public static AuthMetrics disabled() {
+        return new AuthMetrics(null, false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void recordTokenGenerate(long start) {
+        if (enabled) {
+            tokenGenerate.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordTokenVerify(long start, TokenValidation.Status status) {
+        if (enabled) {
+            tokenVerify[status.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordUserLoad(long start) {
+        if (enabled) {
+            userLoad.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void countLogin(LoginOutcome outcome) {
+        if (enabled) {
+            logins[outcome.ordinal()].increment();
+        }
+    }
+
+    public void countRegistration(RegistrationOutcome outcome) {
+        if (enabled) {
+            registrations[outcome.ordinal()].increment();
+        }
+    }
+
+    public void countFilter(FilterOutcome outcome) {
+        if (enabled) {
+            filterRequests[outcome.ordinal()].increment();
+        }
+    }
+
+    public void countRefresh(RefreshOutcome outcome) {
+        if (enabled) {
+            refreshes[outcome.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Wraps {@code encoder} so hashing and matching are timed; returns it unchanged when metrics are disabled.
+     */
+    public PasswordEncoder instrument(PasswordEncoder encoder) {
+        return enabled ? new TimedPasswordEncoder(encoder) : encoder;
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Counter[] counters(MeterRegistry registry, String name, String description, Enum<?>[] outcomes) {
+        Counter[] counters = new Counter[outcomes.length];
+        for (Enum<?> outcome : outcomes) {
+            counters[outcome.ordinal()] = Counter.builder(name)
+                    .description(description)
+                    .tag("result", tag(outcome))
+                    .register(registry);
+        }
+        return counters;
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    private final class TimedPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+
+        private TimedPasswordEncoder(PasswordEncoder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            long start = System.nanoTime();
+            try {
+                return delegate.encode(rawPassword);
+            } finally {
+                passwordHash.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            long start = System.nanoTime();
+            try {
+                return delegate.matches(rawPassword, encodedPassword);
+            } finally {
+                passwordMatch.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.edu.atividade.metrics;
+
+import com.edu.atividade.cache.CacheStats;
+import com.edu.atividade.service.CachingUserDetailsService;
+import com.edu.atividade.service.TokenVersionService;
+import com.edu.atividade.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Publishes the hit, miss, eviction and size counts of the in-memory caches, read from their
+ * {@link CacheStats} at scrape time.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    private final CachingUserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public CacheMetrics(
+            CachingUserDetailsService userDetailsService,
+            TokenVersionService tokenVersionService,
+            VerifiedTokenCache verifiedTokenCache
+    ) {
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "userDetails", userDetailsService::stats);
+        bind(registry, "tokenVersions", tokenVersionService::stats);
+        bind(registry, "verifiedTokens", verifiedTokenCache::stats);
+    }
+
+    private static void bind(MeterRegistry registry, String cache, Supplier<CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().hits())
+                .tags("cache", cache, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().misses())
+                .tags("cache", cache, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().evictions())
+                .tag("cache", cache)
+                .register(registry);
+        Gauge.builder("cache.size", stats, s -> s.get().size())
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.edu.atividade.metrics;
+
+import com.edu.atividade.service.TokenRevocationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the size of the access-token denylist and the memory its tables take.
+ */
+@Component
+public class RevocationMetrics implements MeterBinder {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public RevocationMetrics(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.revocation.size", tokenRevocationService, TokenRevocationService::revokedTokens)
+                .description("Revoked access tokens not yet expired")
+                .tag("type", "token")
+                .register(registry);
+        Gauge.builder("auth.revocation.size", tokenRevocationService, TokenRevocationService::revokedUsers)
+                .description("Users whose earlier tokens are all revoked")
+                .tag("type", "user")
+                .register(registry);
+        Gauge.builder("auth.revocation.memory", tokenRevocationService, TokenRevocationService::memoryBytes)
+                .description("Memory held by the revocation tables")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
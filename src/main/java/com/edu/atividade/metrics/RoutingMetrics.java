@@ -0,0 +1,39 @@
+package com.edu.atividade.metrics;
+
+import com.edu.atividade.datasource.ReadRouting;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes how connections were split between the primary and the read replica, when one is configured.
+ */
+@Component
+public class RoutingMetrics implements MeterBinder {
+
+    private final ReadRouting readRouting;
+
+    public RoutingMetrics(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!readRouting.isEnabled()) {
+            return;
+        }
+        bind(registry, "primary", "write", ReadRouting::writes);
+        bind(registry, "primary", "sticky", ReadRouting::stickyReads);
+        bind(registry, "replica", "read", ReadRouting::replicaReads);
+    }
+
+    private void bind(MeterRegistry registry, String target, String reason, ToDoubleFunction<ReadRouting> count) {
+        FunctionCounter.builder("db.routing", readRouting, count)
+                .description("Connections handed out by the routing datasource")
+                .tags("target", target, "reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.edu.atividade.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One issued refresh token. Only the hash of the opaque value is kept, and the user is referenced by id
+ * so rotating a token never loads or joins the user row.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 43)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Shared by every token rotated from the same login
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    // The user's token version when the family was issued; a password or username change ends the family
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Set when the token is exchanged; a second exchange is reuse
+    @Column(name = "used_at")
+    private Instant usedAt;
+
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, Long userId, UUID familyId, int tokenVersion, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.familyId = familyId;
+        this.tokenVersion = tokenVersion;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; }
+    public String getTokenHash() { return tokenHash; }
+    public Long getUserId() { return userId; }
+    public UUID getFamilyId() { return familyId; }
+    public int getTokenVersion() { return tokenVersion; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public Instant getUsedAt() { return usedAt; }
+}
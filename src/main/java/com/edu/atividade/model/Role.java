@@ -2,5 +2,7 @@ package com.edu.atividade.model;
 
 public enum Role {
     ROLE_USER,
-    ROLE_ADMIN
+    ROLE_ADMIN,
+    // Service accounts that may only call token introspection
+    ROLE_INTROSPECT
 } 
\ No newline at end of file
@@ -9,30 +9,49 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "users")
+// Uniqueness and lookups go through the lowercased columns, so "Alice" and "alice" are the same account
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username_normalized"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email_normalized")
+})
 public class User implements UserDetails {
 
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
+    // Pooled sequence instead of IDENTITY so Hibernate knows ids before insert and can batch them
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
-    @Column(unique = true)
     private String username;
 
     @NotBlank
     @Email
-    @Column(unique = true)
     private String email;
 
+    // Maintained from username/email before every insert and update; see normalize(String)
+    @Column(name = "username_normalized", nullable = false)
+    private String usernameNormalized;
+
+    @Column(name = "email_normalized", nullable = false)
+    private String emailNormalized;
+
     @NotBlank
     private String password;
 
     @Enumerated(EnumType.STRING)
     private Role role;
 
+    // Bumped whenever previously issued tokens must stop being accepted
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     public User() {}
 
     public User(Long id, String username, String email, String password, Role role) {
@@ -53,6 +72,24 @@ public class User implements UserDetails {
     public void setPassword(String password) { this.password = password; }
     public Role getRole() { return role; }
     public void setRole(Role role) { this.role = role; }
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+    public String getUsernameNormalized() { return usernameNormalized; }
+    public String getEmailNormalized() { return emailNormalized; }
+
+    /**
+     * The form usernames and emails are compared and looked up in.
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeLookupColumns() {
+        this.usernameNormalized = normalize(username);
+        this.emailNormalized = normalize(email);
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,70 @@
+package com.edu.atividade.ratelimit;
+
+import com.edu.atividade.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles login attempts before any password is checked, so a guessing attack costs a couple of CAS
+ * operations per attempt instead of a password hash. Three buckets are taken in turn: the client
+ * address, the (address, username) pair and the username alone. The pair bucket is the tight one, so a
+ * single address gives up long before it could drain the account; the account bucket is larger and caps
+ * guesses against one user spread over many addresses.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final TokenBucketLimiter byAddress;
+    private final TokenBucketLimiter byAddressAndUsername;
+    private final TokenBucketLimiter byUsername;
+
+    public LoginRateLimiter(
+            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${auth.rate-limit.ip.capacity:50}") int addressCapacity,
+            @Value("${auth.rate-limit.ip.per-minute:300}") int addressPerMinute,
+            @Value("${auth.rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${auth.rate-limit.username.per-minute:5}") int usernamePerMinute,
+            @Value("${auth.rate-limit.account.capacity:30}") int accountCapacity,
+            @Value("${auth.rate-limit.account.per-minute:30}") int accountPerMinute,
+            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys
+    ) {
+        this.enabled = enabled;
+        this.byAddress = new TokenBucketLimiter(addressCapacity, addressPerMinute, maxKeys);
+        this.byAddressAndUsername = new TokenBucketLimiter(usernameCapacity, usernamePerMinute, maxKeys);
+        this.byUsername = new TokenBucketLimiter(accountCapacity, accountPerMinute, maxKeys);
+    }
+
+    /**
+     * Takes a permit from the address bucket, then the pair bucket, then the username bucket. Returns 0 when
+     * the attempt may go ahead, otherwise the whole seconds to wait; a refused step does not drain the
+     * buckets after it.
+     */
+    public long tryAcquire(String username, String clientAddress) {
+        if (!enabled) {
+            return 0L;
+        }
+        long wait = clientAddress == null ? TokenBucketLimiter.ACQUIRED : byAddress.tryAcquire(clientAddress);
+        if (wait == TokenBucketLimiter.ACQUIRED && username != null) {
+            String normalized = User.normalize(username);
+            if (clientAddress != null) {
+                wait = byAddressAndUsername.tryAcquire(clientAddress + ' ' + normalized);
+            }
+            if (wait == TokenBucketLimiter.ACQUIRED) {
+                wait = byUsername.tryAcquire(normalized);
+            }
+        }
+        return wait == TokenBucketLimiter.ACQUIRED ? 0L : Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-interval:60000}",
+            initialDelayString = "${auth.rate-limit.sweep-interval:60000}")
+    public void removeIdle() {
+        byAddress.removeIdle();
+        byAddressAndUsername.removeIdle();
+        byUsername.removeIdle();
+    }
+}
@@ -0,0 +1,103 @@
+package com.edu.atividade.ratelimit;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key, {@code capacity} permits deep and refilled at {@code permitsPerMinute}. Each bucket
+ * is a single {@link AtomicLong} holding the time at which it will be full again (the GCRA form of a token
+ * bucket), so taking a permit is one compare-and-set and no lock is ever held. A bucket whose refill time
+ * has passed is indistinguishable from a new one, so idle keys are dropped without changing any answer;
+ * only when more than {@code maxKeys} buckets are still refilling are arbitrary ones evicted.
+ */
+public class TokenBucketLimiter {
+
+    public static final long ACQUIRED = 0L;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    public TokenBucketLimiter(int capacity, int permitsPerMinute, int maxKeys) {
+        this(capacity, permitsPerMinute, maxKeys, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(int capacity, int permitsPerMinute, int maxKeys, LongSupplier nanoClock) {
+        if (capacity <= 0 || permitsPerMinute <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, permitsPerMinute and maxKeys must be positive");
+        }
+        this.intervalNanos = 60_000_000_000L / permitsPerMinute;
+        this.burstNanos = intervalNanos * capacity;
+        this.maxKeys = maxKeys;
+        this.clock = nanoClock;
+    }
+
+    /**
+     * Takes one permit for {@code key}: returns {@link #ACQUIRED}, or the nanoseconds until one is available.
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            if (buckets.size() > maxKeys) {
+                trim();
+            }
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return ACQUIRED;
+            }
+        }
+    }
+
+    /**
+     * Drops every bucket that has refilled completely; meant to be called periodically.
+     */
+    public int removeIdle() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        Iterator<AtomicLong> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            // A permit taken concurrently from a bucket being dropped is forgotten: at most one extra attempt
+            if (iterator.next().get() - now <= 0) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            removeIdle();
+            // Still over: every key is busy, so evict a little below the cap rather than on every new key
+            int target = maxKeys - Math.max(1, maxKeys / 10);
+            Iterator<AtomicLong> iterator = buckets.values().iterator();
+            while (buckets.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+}
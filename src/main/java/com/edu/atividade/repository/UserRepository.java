@@ -1,15 +1,55 @@
 package com.edu.atividade.repository;
 
+import com.edu.atividade.dto.UserProfileDto;
 import com.edu.atividade.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    boolean existsByUsername(String username);
-    boolean existsByEmail(String email);
-} 
\ No newline at end of file
+
+    // Case-insensitive lookups; callers pass User.normalize(value) so the unique index is used
+    Optional<User> findByUsernameNormalized(String usernameNormalized);
+    boolean existsByUsernameNormalized(String usernameNormalized);
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    // Read-only so that, like the service reads, it can be served by the replica
+    @Transactional(readOnly = true)
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Query("select new com.edu.atividade.dto.UserProfileDto(u.id, u.username, u.email, u.role) from User u where u.id = :id")
+    Optional<UserProfileDto> findProfileById(@Param("id") Long id);
+
+    // Keyset page: seeks past the last id seen instead of counting an OFFSET of skipped rows
+    @Query("select new com.edu.atividade.dto.UserProfileDto(u.id, u.username, u.email, u.role) from User u where u.id > :afterId order by u.id")
+    List<UserProfileDto> findProfilesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Existing users clashing with any of a batch of candidates, in one round trip; a union rather than
+    // "in ... or in ..." so each branch can use its unique index instead of scanning the table
+    @Query("select new com.edu.atividade.dto.UserProfileDto(u.id, u.username, u.email, u.role) from User u where u.usernameNormalized in :usernames"
+            + " union select new com.edu.atividade.dto.UserProfileDto(u.id, u.username, u.email, u.role) from User u where u.emailNormalized in :emails")
+    List<UserProfileDto> findProfilesByNormalizedUsernameOrEmail(
+            @Param("usernames") Collection<String> usernames,
+            @Param("emails") Collection<String> emails
+    );
+
+    // Cursor over the whole table; must be consumed inside a transaction
+    @Query("select new com.edu.atividade.dto.UserProfileDto(u.id, u.username, u.email, u.role) from User u order by u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserProfileDto> streamProfiles();
+}
@@ -1,14 +1,32 @@
 package com.edu.atividade.service;
 
 import com.edu.atividade.dto.JwtResponseDto;
+import com.edu.atividade.dto.RefreshTokenRequestDto;
 import com.edu.atividade.dto.UserLoginDto;
 import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.logging.SecurityEventLogger;
+import com.edu.atividade.metrics.AuthMetrics;
+import com.edu.atividade.metrics.AuthMetrics.LoginOutcome;
+import com.edu.atividade.metrics.AuthMetrics.RefreshOutcome;
+import com.edu.atividade.metrics.AuthMetrics.RegistrationOutcome;
 import com.edu.atividade.model.CustomUserDetails;
 import com.edu.atividade.model.User;
+import com.edu.atividade.ratelimit.LoginRateLimiter;
+import org.springframework.security.authentication.AccountExpiredException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @Service
 public class AuthService {
@@ -16,39 +34,155 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginRateLimiter loginRateLimiter;
+    private final AuthMetrics metrics;
+    private final SecurityEventLogger securityLog;
 
-    public AuthService(AuthenticationManager authenticationManager, UserService userService, JwtService jwtService) {
+    public AuthService(
+            AuthenticationManager authenticationManager,
+            UserService userService,
+            JwtService jwtService,
+            RefreshTokenService refreshTokenService,
+            TokenRevocationService tokenRevocationService,
+            PasswordHashingExecutor passwordHashingExecutor,
+            LoginRateLimiter loginRateLimiter,
+            AuthMetrics metrics,
+            SecurityEventLogger securityLog
+    ) {
         this.authenticationManager = authenticationManager;
         this.userService = userService;
         this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.loginRateLimiter = loginRateLimiter;
+        this.metrics = metrics;
+        this.securityLog = securityLog;
     }
 
-    public JwtResponseDto login(UserLoginDto loginDto) {
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                loginDto.getUsername(),
-                loginDto.getPassword()
-            )
-        );
+    // Login and registration spend most of their time in BCrypt, so they run on the hashing pool; throttled
+    // attempts are refused before they reach it
+    public CompletableFuture<JwtResponseDto> login(UserLoginDto loginDto, String clientAddress) {
+        long retryAfter = loginRateLimiter.tryAcquire(loginDto.getUsername(), clientAddress);
+        if (retryAfter > 0) {
+            metrics.countLogin(LoginOutcome.THROTTLED);
+            securityLog.loginFailed(loginDto.getUsername(), LoginOutcome.THROTTLED);
+            throw new LoginThrottledException(retryAfter);
+        }
+        try {
+            return passwordHashingExecutor.submit(() -> authenticate(loginDto));
+        } catch (RejectedExecutionException e) {
+            metrics.countLogin(LoginOutcome.REJECTED);
+            securityLog.loginFailed(loginDto.getUsername(), LoginOutcome.REJECTED);
+            throw e;
+        }
+    }
 
-        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-        User user = userDetails.getUser();
-        String token = jwtService.generateToken(userDetails);
+    public CompletableFuture<JwtResponseDto> register(UserRegistrationDto registrationDto) {
+        return submitRegistration(() -> tokenFor(userService.registerUser(registrationDto)));
+    }
 
-        return new JwtResponseDto(token, user.getUsername(), user.getRole().name());
+    public CompletableFuture<JwtResponseDto> registerAdmin(UserRegistrationDto registrationDto) {
+        return submitRegistration(() -> {
+            User admin = userService.registerAdmin(registrationDto);
+            securityLog.adminChange(null, "register_admin", admin.getUsername());
+            return tokenFor(admin);
+        });
     }
 
-    public JwtResponseDto register(UserRegistrationDto registrationDto) {
-        User user = userService.registerUser(registrationDto);
-        String token = jwtService.generateToken(user);
+    // No password involved, so this runs on the calling thread instead of the hashing pool
+    public JwtResponseDto refresh(RefreshTokenRequestDto request) {
+        RefreshTokenService.Rotation rotation;
+        try {
+            rotation = refreshTokenService.rotate(request.getRefreshToken());
+        } catch (InvalidRefreshTokenException e) {
+            metrics.countRefresh(RefreshOutcome.valueOf(e.getReason().name()));
+            throw e;
+        }
+        metrics.countRefresh(RefreshOutcome.SUCCESS);
+        return response(rotation.user(), rotation.refreshToken());
+    }
+
+    /**
+     * Revokes the presented access token and, when given, the refresh-token family. Invalid or unknown
+     * tokens are ignored, so logging out twice is harmless.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            tokenRevocationService.revoke(jwtService.validateToken(accessToken));
+        }
+        if (StringUtils.hasText(refreshToken)) {
+            refreshTokenService.revokeFamily(refreshToken);
+        }
+    }
 
-        return new JwtResponseDto(token, user.getUsername(), user.getRole().name());
+    private CompletableFuture<JwtResponseDto> submitRegistration(Supplier<JwtResponseDto> registration) {
+        try {
+            return passwordHashingExecutor.submit(() -> {
+                try {
+                    JwtResponseDto response = registration.get();
+                    metrics.countRegistration(RegistrationOutcome.SUCCESS);
+                    return response;
+                } catch (RuntimeException e) {
+                    metrics.countRegistration(e instanceof UserConflictException ? RegistrationOutcome.CONFLICT : RegistrationOutcome.ERROR);
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metrics.countRegistration(RegistrationOutcome.REJECTED);
+            throw e;
+        }
     }
 
-    public JwtResponseDto registerAdmin(UserRegistrationDto registrationDto) {
-        User user = userService.registerAdmin(registrationDto);
+    private JwtResponseDto authenticate(UserLoginDto loginDto) {
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(
+                    loginDto.getUsername(),
+                    loginDto.getPassword()
+                )
+            );
+        } catch (AuthenticationException e) {
+            LoginOutcome outcome = loginOutcome(e);
+            metrics.countLogin(outcome);
+            securityLog.loginFailed(loginDto.getUsername(), outcome);
+            throw e;
+        }
+        metrics.countLogin(LoginOutcome.SUCCESS);
+        securityLog.loginSucceeded(loginDto.getUsername());
+
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        return tokenFor(userDetails.getUser());
+    }
+
+    private JwtResponseDto tokenFor(User user) {
+        return response(user, refreshTokenService.issue(user));
+    }
+
+    private JwtResponseDto response(User user, String refreshToken) {
         String token = jwtService.generateToken(user);
 
-        return new JwtResponseDto(token, user.getUsername(), user.getRole().name());
+        return new JwtResponseDto(token, user.getUsername(), user.getRole().name(), refreshToken,
+                jwtService.getExpirationMillis() / 1000);
+    }
+
+    private static LoginOutcome loginOutcome(AuthenticationException e) {
+        if (e instanceof BadCredentialsException) {
+            return LoginOutcome.BAD_CREDENTIALS;
+        }
+        if (e instanceof DisabledException) {
+            return LoginOutcome.DISABLED;
+        }
+        if (e instanceof LockedException) {
+            return LoginOutcome.LOCKED;
+        }
+        if (e instanceof AccountExpiredException || e instanceof CredentialsExpiredException) {
+            return LoginOutcome.EXPIRED;
+        }
+        return LoginOutcome.ERROR;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.edu.atividade.service;
+
+import com.edu.atividade.cache.BoundedCache;
+import com.edu.atividade.cache.CacheStats;
+import com.edu.atividade.metrics.AuthMetrics;
+import com.edu.atividade.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps recently loaded users in memory so the JWT filter and login do not hit the database on every call.
+ * Entries expire after the configured TTL and are dropped as soon as {@link UserService} changes the user.
+ */
+@Service
+public class CachingUserDetailsService implements UserDetailsService {
+
+    private final UserService userService;
+    private final boolean enabled;
+    private final BoundedCache<String, UserDetails> cache;
+    private final AuthMetrics metrics;
+
+    public CachingUserDetailsService(
+            UserService userService,
+            AuthMetrics metrics,
+            @Value("${auth.user-cache.enabled:true}") boolean enabled,
+            @Value("${auth.user-cache.max-size:10000}") int maxSize,
+            @Value("${auth.user-cache.ttl:60000}") long ttlMillis
+    ) {
+        this.userService = userService;
+        this.enabled = enabled;
+        this.cache = new BoundedCache<>(maxSize, ttlMillis);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (!enabled) {
+            return load(username);
+        }
+        // Lookups ignore case, so "Alice" and "alice" share one entry
+        String key = User.normalize(username);
+        UserDetails cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        UserDetails loaded = load(username);
+        cache.put(key, loaded);
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.invalidate(User.normalize(event.username()));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private UserDetails load(String username) {
+        long start = metrics.start();
+        try {
+            return userService.loadUserByUsername(username);
+        } finally {
+            metrics.recordUserLoad(start);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.edu.atividade.service;
+
+/**
+ * A refresh token that cannot be exchanged. The reason is for logs and metrics only; clients always get the
+ * same answer so they cannot tell an unknown token from a revoked one.
+ * <p>
+ * There is one instance per reason, without a stack trace, so rejecting a flood of bad tokens allocates nothing.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Reason { UNKNOWN, EXPIRED, REUSED, STALE }
+
+    private static final InvalidRefreshTokenException[] INSTANCES = new InvalidRefreshTokenException[Reason.values().length];
+
+    static {
+        for (Reason reason : Reason.values()) {
+            INSTANCES[reason.ordinal()] = new InvalidRefreshTokenException(reason);
+        }
+    }
+
+    private final Reason reason;
+
+    private InvalidRefreshTokenException(Reason reason) {
+        super("Invalid refresh token", null, false, false);
+        this.reason = reason;
+    }
+
+    public static InvalidRefreshTokenException of(Reason reason) {
+        return INSTANCES[reason.ordinal()];
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,347 @@
+package com.edu.atividade.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the keys used to sign and verify tokens. Keys and the parser are
+ * built once; rotating produces a new ring that still verifies tokens signed with the
+ * retired keys, so tokens already handed out keep working until they expire.
+ * <p>
+ * With HS256 every key is a shared secret. With ES256 the ring signs with a P-256 private key and
+ * verifies with public keys, which it also publishes as a JWK set so other services can verify
+ * tokens themselves; key ids are RFC 7638 thumbprints of those public keys.
+ */
+final class JwtKeyRing {
+
+    static final int MAX_VERIFICATION_KEYS = 4;
+    // Far above any token we issue; also above Tomcat's default 8 KB header limit
+    static final int MAX_TOKEN_LENGTH = 16 * 1024;
+
+    // The parser only sees time through this clock, so it never finds a token expired; JwtService compares exp
+    // with the real time itself and gets a status instead of an ExpiredJwtException with a stack trace. We never
+    // issue nbf, so a token carrying one fails to parse
+    private static final Date EPOCH = new Date(0);
+    private static final Clock PINNED_CLOCK = () -> EPOCH;
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final boolean[] BASE64URL_ALPHABET = new boolean[128];
+
+    static {
+        for (char c : "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray()) {
+            BASE64URL_ALPHABET[c] = true;
+        }
+    }
+
+    private final SignatureAlgorithm algorithm;
+    private final String activeKeyId;
+    private final Key activeKey;
+    private final Map<String, Key> verificationKeys;
+    private final Map<String, Object> jwks;
+    private final String jwksETag;
+    private final String[] knownHeaders;
+    private final int signatureLength;
+    private final JwtParser parser;
+
+    private JwtKeyRing(SignatureAlgorithm algorithm, String activeKeyId, Key activeKey, Map<String, Key> verificationKeys) {
+        this.algorithm = algorithm;
+        this.activeKeyId = activeKeyId;
+        this.activeKey = activeKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+        this.jwks = jwks(verificationKeys);
+        this.jwksETag = eTag(verificationKeys);
+        this.knownHeaders = knownHeaders(algorithm, verificationKeys.keySet());
+        // HS256 signs with a 32-byte MAC, ES256 with a 64-byte R||S pair; both unpadded base64url
+        this.signatureLength = algorithm == SignatureAlgorithm.ES256 ? 86 : 43;
+        this.parser = Jwts.parserBuilder()
+                .setClock(PINNED_CLOCK)
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    static JwtKeyRing of(String activeSecret, List<String> previousSecrets) {
+        Map<String, Key> keys = new LinkedHashMap<>();
+        Key active = hmacKey(activeSecret);
+        String activeId = keyId(activeSecret);
+        keys.put(activeId, active);
+        for (String secret : previousSecrets) {
+            if (secret != null && !secret.isBlank() && keys.size() < MAX_VERIFICATION_KEYS) {
+                keys.putIfAbsent(keyId(secret), hmacKey(secret));
+            }
+        }
+        return new JwtKeyRing(SignatureAlgorithm.HS256, activeId, active, keys);
+    }
+
+    static JwtKeyRing ofEc(KeyPair active, List<PublicKey> previousKeys) {
+        Map<String, Key> keys = new LinkedHashMap<>();
+        String activeId = thumbprint(active.getPublic());
+        keys.put(activeId, active.getPublic());
+        for (PublicKey key : previousKeys) {
+            if (keys.size() < MAX_VERIFICATION_KEYS) {
+                keys.putIfAbsent(thumbprint(key), key);
+            }
+        }
+        return new JwtKeyRing(SignatureAlgorithm.ES256, activeId, active.getPrivate(), keys);
+    }
+
+    /**
+     * Returns a ring signing with {@code newSecret} that keeps the most recent keys for verification.
+     */
+    JwtKeyRing rotate(String newSecret) {
+        if (algorithm != SignatureAlgorithm.HS256) {
+            throw new IllegalStateException("Signing with " + algorithm + "; rotate to a new key pair instead");
+        }
+        Key key = hmacKey(newSecret);
+        return rotated(keyId(newSecret), key, key);
+    }
+
+    /**
+     * Returns a ring signing with {@code newKeyPair} that keeps the most recent public keys for verification.
+     */
+    JwtKeyRing rotate(KeyPair newKeyPair) {
+        if (algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("Signing with " + algorithm + "; rotate to a new secret instead");
+        }
+        return rotated(thumbprint(newKeyPair.getPublic()), newKeyPair.getPrivate(), newKeyPair.getPublic());
+    }
+
+    /**
+     * Structural check of the token that starts at {@code offset} in {@code source}, done before any decoding
+     * or crypto and without allocating: three non-empty base64url segments within the size limit, a
+     * signature of the right length and a header this ring itself would have written (known alg and kid).
+     * Returns null when the token is worth parsing, otherwise MALFORMED: whatever failed, it is not a token
+     * this ring could have issued, and every such token gets the same answer.
+     */
+    TokenValidation.Status precheck(String source, int offset) {
+        int end = source.length();
+        if (end - offset > MAX_TOKEN_LENGTH || end - offset < 5) {
+            return TokenValidation.Status.MALFORMED;
+        }
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = offset; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return TokenValidation.Status.MALFORMED;
+                }
+            } else if (c >= 128 || !BASE64URL_ALPHABET[c]) {
+                return TokenValidation.Status.MALFORMED;
+            }
+        }
+        if (secondDot < 0 || firstDot == offset || secondDot == firstDot + 1) {
+            return TokenValidation.Status.MALFORMED;
+        }
+        if (end - secondDot - 1 != signatureLength) {
+            return TokenValidation.Status.MALFORMED;
+        }
+        int headerLength = firstDot - offset;
+        for (String header : knownHeaders) {
+            if (header.length() == headerLength && source.regionMatches(offset, header, 0, headerLength)) {
+                return null;
+            }
+        }
+        // Unknown alg or kid: nothing here could verify it
+        return TokenValidation.Status.MALFORMED;
+    }
+
+    SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    String activeKeyId() {
+        return activeKeyId;
+    }
+
+    Key activeKey() {
+        return activeKey;
+    }
+
+    JwtParser parser() {
+        return parser;
+    }
+
+    Map<String, Key> verificationKeys() {
+        return verificationKeys;
+    }
+
+    /**
+     * The public verification keys as a JWK set ({@code {"keys": [...]}}); empty for HS256.
+     */
+    Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    String jwksETag() {
+        return jwksETag;
+    }
+
+    static PrivateKey ecPrivateKey(String pkcs8) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(pemBody(pkcs8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Not a PKCS#8 EC private key", e);
+        }
+    }
+
+    static PublicKey ecPublicKey(String x509) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(pemBody(x509)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Not an X.509 EC public key", e);
+        }
+    }
+
+    private JwtKeyRing rotated(String newId, Key signingKey, Key verificationKey) {
+        List<String> retained = new ArrayList<>(verificationKeys.keySet());
+        Map<String, Key> keys = new LinkedHashMap<>();
+        keys.put(newId, verificationKey);
+        for (String kid : retained) {
+            if (keys.size() < MAX_VERIFICATION_KEYS) {
+                keys.putIfAbsent(kid, verificationKeys.get(kid));
+            }
+        }
+        return new JwtKeyRing(algorithm, newId, signingKey, keys);
+    }
+
+    private Key verificationKey(String kid) {
+        // Tokens issued before key ids were introduced carry no kid and were signed with the active key
+        if (kid == null) {
+            return verificationKeys.get(activeKeyId);
+        }
+        Key key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String keyId(String secret) {
+        return HexFormat.of().formatHex(sha256(secret), 0, 8);
+    }
+
+    // RFC 7638: SHA-256 of the required JWK members in lexicographic order, without whitespace
+    private static String thumbprint(PublicKey key) {
+        ECPublicKey ec = p256(key);
+        String canonical = "{\"crv\":\"P-256\",\"kty\":\"EC\",\"x\":\"" + coordinate(ec.getW().getAffineX())
+                + "\",\"y\":\"" + coordinate(ec.getW().getAffineY()) + "\"}";
+        return BASE64URL.encodeToString(sha256(canonical));
+    }
+
+    // The encoded JOSE headers JwtService writes, {"kid":"...","alg":"..."}, plus the kid-less HS256 header
+    // of tokens issued before key ids existed
+    private static String[] knownHeaders(SignatureAlgorithm algorithm, Iterable<String> kids) {
+        List<String> headers = new ArrayList<>();
+        for (String kid : kids) {
+            headers.add(base64Url("{\"kid\":\"" + kid + "\",\"alg\":\"" + algorithm.getValue() + "\"}"));
+        }
+        if (algorithm == SignatureAlgorithm.HS256) {
+            headers.add(base64Url("{\"alg\":\"HS256\"}"));
+        }
+        return headers.toArray(String[]::new);
+    }
+
+    private static String base64Url(String json) {
+        return BASE64URL.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Object> jwks(Map<String, Key> keys) {
+        List<Map<String, Object>> published = new ArrayList<>();
+        keys.forEach((kid, key) -> {
+            if (key instanceof ECPublicKey ec) {
+                Map<String, Object> jwk = new LinkedHashMap<>();
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("use", "sig");
+                jwk.put("alg", SignatureAlgorithm.ES256.getValue());
+                jwk.put("kid", kid);
+                jwk.put("x", coordinate(ec.getW().getAffineX()));
+                jwk.put("y", coordinate(ec.getW().getAffineY()));
+                published.add(Collections.unmodifiableMap(jwk));
+            }
+        });
+        return Map.of("keys", List.copyOf(published));
+    }
+
+    // Derived from the published key ids only, so it never depends on an HMAC secret
+    private static String eTag(Map<String, Key> keys) {
+        StringBuilder published = new StringBuilder("jwks");
+        keys.forEach((kid, key) -> {
+            if (key instanceof ECPublicKey) {
+                published.append(',').append(kid);
+            }
+        });
+        return "\"" + HexFormat.of().formatHex(sha256(published.toString()), 0, 8) + "\"";
+    }
+
+    private static ECPublicKey p256(PublicKey key) {
+        if (!(key instanceof ECPublicKey ec) || ec.getParams().getCurve().getField().getFieldSize() != 256) {
+            throw new IllegalArgumentException("ES256 needs a P-256 EC key");
+        }
+        return ec;
+    }
+
+    // Coordinates are fixed-length (32 bytes for P-256) unsigned big-endian integers
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, fixed.length);
+        System.arraycopy(bytes, bytes.length - length, fixed, fixed.length - length, length);
+        return BASE64URL.encodeToString(fixed);
+    }
+
+    private static byte[] pemBody(String key) {
+        String body = key.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
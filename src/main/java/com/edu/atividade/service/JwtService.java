@@ -1,27 +1,91 @@
 package com.edu.atividade.service;
 
+import com.edu.atividade.metrics.AuthMetrics;
+import com.edu.atividade.model.CustomUserDetails;
+import com.edu.atividade.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.security.KeyPair;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private final long jwtExpiration;
+    private final AtomicReference<JwtKeyRing> keyRing;
+    private final VerifiedTokenCache verifiedTokens;
+    private final AuthMetrics metrics;
+
+    @Autowired
+    public JwtService(
+            @Value("${jwt.algorithm:HS256}") String algorithm,
+            @Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.previous-secrets:}") List<String> previousSecrets,
+            @Value("${jwt.ec.private-key:}") String ecPrivateKey,
+            @Value("${jwt.ec.public-key:}") String ecPublicKey,
+            @Value("${jwt.ec.previous-public-keys:}") List<String> ecPreviousPublicKeys,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            VerifiedTokenCache verifiedTokens,
+            AuthMetrics metrics
+    ) {
+        this(keyRing(algorithm, secretKey, previousSecrets, ecPrivateKey, ecPublicKey, ecPreviousPublicKeys),
+                jwtExpiration, verifiedTokens, metrics);
+    }
+
+    public JwtService(String secretKey, List<String> previousSecrets, long jwtExpiration, VerifiedTokenCache verifiedTokens) {
+        this(JwtKeyRing.of(secretKey, previousSecrets), jwtExpiration, verifiedTokens, AuthMetrics.disabled());
+    }
+
+    public JwtService(String secretKey, List<String> previousSecrets, long jwtExpiration) {
+        this(secretKey, previousSecrets, jwtExpiration, VerifiedTokenCache.disabled());
+    }
+
+    /**
+     * Signs with ES256 using {@code signingKey}; {@code previousKeys} are still accepted for verification.
+     */
+    public JwtService(KeyPair signingKey, List<PublicKey> previousKeys, long jwtExpiration) {
+        this(JwtKeyRing.ofEc(signingKey, previousKeys), jwtExpiration, VerifiedTokenCache.disabled(), AuthMetrics.disabled());
+    }
+
+    private JwtService(JwtKeyRing keyRing, long jwtExpiration, VerifiedTokenCache verifiedTokens, AuthMetrics metrics) {
+        this.jwtExpiration = jwtExpiration;
+        this.keyRing = new AtomicReference<>(keyRing);
+        this.verifiedTokens = verifiedTokens;
+        this.metrics = metrics;
+    }
+
+    public long getExpirationMillis() {
+        return jwtExpiration;
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -33,17 +97,67 @@ public class JwtService {
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        User user = userDetails instanceof CustomUserDetails custom ? custom.getUser()
+                : userDetails instanceof User entity ? entity : null;
+        if (user != null && user.getId() != null) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder()
+        long start = metrics.start();
+        JwtKeyRing keys = keyRing.get();
+        long now = System.currentTimeMillis();
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keys.activeKeyId())
                 .setClaims(extraClaims)
+                .setId(Long.toHexString(newTokenId()))
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpiration))
+                .signWith(keys.activeKey(), keys.algorithm())
                 .compact();
+        metrics.recordTokenGenerate(start);
+        return token;
+    }
+
+    /**
+     * Verifies the signature and expiry with a single parse and returns the claims or the failure reason.
+     * Tokens seen recently are answered from {@link VerifiedTokenCache} without parsing at all.
+     */
+    public TokenValidation validateToken(String token) {
+        return validateToken(token, 0);
+    }
+
+    /**
+     * Same as {@link #validateToken(String)} for the token that starts at {@code offset} in {@code source}
+     * (e.g. after "Bearer "), so a cache hit or a token turned away by the structural pre-check needs no copy
+     * of it. Failures are shared instances and pre-check rejections never reach the parser, so junk tokens
+     * cost no exception and no allocation.
+     */
+    public TokenValidation validateToken(String source, int offset) {
+        TokenValidation cached = verifiedTokens.get(source, offset);
+        if (cached != null) {
+            return cached;
+        }
+        long start = metrics.start();
+        JwtKeyRing keys = keyRing.get();
+        TokenValidation.Status rejected = keys.precheck(source, offset);
+        if (rejected != null) {
+            metrics.recordTokenVerify(start, rejected);
+            return TokenValidation.failure(rejected);
+        }
+        String token = offset == 0 ? source : source.substring(offset);
+        TokenValidation validation = parseAndVerify(keys, token);
+        metrics.recordTokenVerify(start, validation.status());
+        if (validation.isValid()) {
+            verifiedTokens.put(token, validation);
+        }
+        return validation;
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
@@ -51,6 +165,67 @@ public class JwtService {
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    /**
+     * Starts signing with {@code newSecret}. Tokens signed with the previous keys stay valid
+     * until they expire, as long as fewer than {@link JwtKeyRing#MAX_VERIFICATION_KEYS} rotations happen meanwhile.
+     */
+    public void rotateSigningKey(String newSecret) {
+        keyRing.updateAndGet(current -> current.rotate(newSecret));
+        verifiedTokens.clear();
+    }
+
+    /**
+     * ES256 counterpart of {@link #rotateSigningKey(String)}. The new public key is published in the JWK set
+     * at once; verifiers that cached the old set pick it up when their copy expires.
+     */
+    public void rotateSigningKey(KeyPair newKeyPair) {
+        keyRing.updateAndGet(current -> current.rotate(newKeyPair));
+        verifiedTokens.clear();
+    }
+
+    /**
+     * Public verification keys as a JWK set, for services that verify our tokens themselves.
+     */
+    public Map<String, Object> jwks() {
+        return keyRing.get().jwks();
+    }
+
+    public String jwksETag() {
+        return keyRing.get().jwksETag();
+    }
+
+    // Identifies the token for revocation only, so it needs to be unique rather than unpredictable
+    private static long newTokenId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0L);
+        return id;
+    }
+
+    private static JwtKeyRing keyRing(String algorithm, String secretKey, List<String> previousSecrets,
+                                      String ecPrivateKey, String ecPublicKey, List<String> ecPreviousPublicKeys) {
+        if ("HS256".equalsIgnoreCase(algorithm)) {
+            return JwtKeyRing.of(secretKey, previousSecrets);
+        }
+        if (!"ES256".equalsIgnoreCase(algorithm)) {
+            throw new IllegalArgumentException("Unsupported jwt.algorithm: " + algorithm + " (HS256 or ES256)");
+        }
+        KeyPair signingKey;
+        if (ecPrivateKey.isBlank()) {
+            // Fine for a single node in development; tokens stop verifying on restart and on other nodes
+            log.warn("jwt.ec.private-key is not set; signing with a key pair generated for this run only");
+            signingKey = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        } else {
+            signingKey = new KeyPair(JwtKeyRing.ecPublicKey(ecPublicKey), JwtKeyRing.ecPrivateKey(ecPrivateKey));
+        }
+        List<PublicKey> previousKeys = ecPreviousPublicKeys.stream()
+                .filter(key -> key != null && !key.isBlank())
+                .map(JwtKeyRing::ecPublicKey)
+                .toList();
+        return JwtKeyRing.ofEc(signingKey, previousKeys);
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -59,16 +234,35 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    // The ring's parser does not check expiry (see JwtKeyRing), so it is done here, after the signature
+    private TokenValidation parseAndVerify(JwtKeyRing keys, String token) {
+        try {
+            Claims claims = keys.parser().parseClaimsJws(token).getBody();
+            if (isExpired(claims.getExpiration())) {
+                return TokenValidation.failure(TokenValidation.Status.EXPIRED);
+            }
+            return TokenValidation.valid(claims);
+        } catch (SignatureException e) {
+            return TokenValidation.failure(TokenValidation.Status.INVALID_SIGNATURE);
+        } catch (UnsupportedJwtException e) {
+            return TokenValidation.failure(TokenValidation.Status.UNSUPPORTED);
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenValidation.failure(TokenValidation.Status.MALFORMED);
+        }
+    }
+
+    // Keeps the JJWT contract for callers of extractClaim: an expired token throws
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Jws<Claims> jws = keyRing.get().parser().parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        if (isExpired(claims.getExpiration())) {
+            throw new ExpiredJwtException(jws.getHeader(), claims, "JWT expired at " + claims.getExpiration());
+        }
+        return claims;
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Same rule as JJWT without clock skew: expired once the current time is past exp
+    private static boolean isExpired(Date expiration) {
+        return expiration != null && System.currentTimeMillis() > expiration.getTime();
     }
-} 
\ No newline at end of file
+}
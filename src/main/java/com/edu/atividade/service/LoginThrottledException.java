@@ -0,0 +1,21 @@
+package com.edu.atividade.service;
+
+/**
+ * A login attempt refused by the rate limiter before any password was checked. Thrown at attack rates,
+ * so it skips the stack trace.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many login attempts, try again later", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
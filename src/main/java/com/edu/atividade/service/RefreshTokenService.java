@@ -0,0 +1,134 @@
+package com.edu.atividade.service;
+
+import com.edu.atividade.logging.SecurityEventLogger;
+import com.edu.atividade.model.RefreshToken;
+import com.edu.atividade.model.User;
+import com.edu.atividade.repository.RefreshTokenRepository;
+import com.edu.atividade.repository.UserRepository;
+import com.edu.atividade.service.InvalidRefreshTokenException.Reason;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Every exchange marks the presented token used and hands out
+ * a new one in the same family; presenting a used token again means it was copied, so the whole family
+ * is deleted and both the thief and the owner have to log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final SecurityEventLogger securityLog;
+    private final long refreshExpiration;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            SecurityEventLogger securityLog,
+            @Value("${jwt.refresh-expiration:1209600000}") long refreshExpiration
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.securityLog = securityLog;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public record Rotation(User user, String refreshToken) {}
+
+    /**
+     * Starts a new family for {@code user} and returns the opaque token to hand to the client.
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user.getId(), UUID.randomUUID(), user.getTokenVersion());
+    }
+
+    // Failed exchanges still commit, so a detected reuse really deletes the family
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> reject(Reason.UNKNOWN, null));
+        Instant now = Instant.now();
+        if (token.getUsedAt() != null || refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            refreshTokenRepository.deleteByFamilyId(token.getFamilyId());
+            throw reject(Reason.REUSED, token.getUserId());
+        }
+        if (!token.getExpiresAt().isAfter(now)) {
+            throw reject(Reason.EXPIRED, token.getUserId());
+        }
+        User user = userRepository.findById(token.getUserId())
+                .orElseThrow(() -> reject(Reason.UNKNOWN, token.getUserId()));
+        if (user.getTokenVersion() != token.getTokenVersion()) {
+            refreshTokenRepository.deleteByFamilyId(token.getFamilyId());
+            throw reject(Reason.STALE, token.getUserId());
+        }
+        return new Rotation(user, issue(user.getId(), token.getFamilyId(), token.getTokenVersion()));
+    }
+
+    /**
+     * Ends the family {@code rawToken} belongs to, if it is known; used on logout.
+     */
+    @Transactional
+    public void revokeFamily(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+
+    @Transactional
+    public int revokeAll(Long userId) {
+        return refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Drops expired tokens; used ones are kept until then so reuse can still be recognised.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-prune-interval:3600000}",
+            initialDelayString = "${jwt.refresh-prune-interval:3600000}")
+    @Transactional
+    public int pruneExpired() {
+        return refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    public long getExpirationMillis() {
+        return refreshExpiration;
+    }
+
+    private String issue(Long userId, UUID familyId, int tokenVersion) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = ENCODER.encodeToString(bytes);
+        Instant expiresAt = Instant.now().plusMillis(refreshExpiration);
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), userId, familyId, tokenVersion, expiresAt));
+        return rawToken;
+    }
+
+    private InvalidRefreshTokenException reject(Reason reason, Long userId) {
+        securityLog.tokenRejected(reason, userId == null ? null : "id:" + userId, null);
+        return InvalidRefreshTokenException.of(reason);
+    }
+
+    // 43 characters: SHA-256 in unpadded base64url
+    static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
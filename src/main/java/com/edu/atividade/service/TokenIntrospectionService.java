@@ -0,0 +1,69 @@
+package com.edu.atividade.service;
+
+import com.edu.atividade.dto.TokenIntrospectionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers, for a batch of tokens, whether each one would be accepted by {@code JwtAuthenticationFilter}.
+ * Signature checks are CPU-bound and independent, so batches of {@code auth.introspect.parallel-threshold}
+ * tokens or more are verified on all cores; revocation and token-version checks, which may read the
+ * database, then run in order on the calling thread.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private static final String REVOKED = "REVOKED";
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenVersionService tokenVersionService;
+    private final int parallelThreshold;
+
+    public TokenIntrospectionService(
+            JwtService jwtService,
+            TokenRevocationService tokenRevocationService,
+            TokenVersionService tokenVersionService,
+            @Value("${auth.introspect.parallel-threshold:64}") int parallelThreshold
+    ) {
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.tokenVersionService = tokenVersionService;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * One result per token, in the order given.
+     */
+    public List<TokenIntrospectionDto> introspect(List<String> tokens) {
+        List<TokenValidation> validations = (tokens.size() >= parallelThreshold ? tokens.parallelStream() : tokens.stream())
+                .map(jwtService::validateToken)
+                .toList();
+        List<TokenIntrospectionDto> results = new ArrayList<>(validations.size());
+        for (TokenValidation validation : validations) {
+            results.add(describe(validation));
+        }
+        return results;
+    }
+
+    private TokenIntrospectionDto describe(TokenValidation validation) {
+        if (!validation.isValid()) {
+            return TokenIntrospectionDto.inactive(validation.status().name());
+        }
+        if (tokenRevocationService.isRevoked(validation) || !isVersionCurrent(validation)) {
+            return TokenIntrospectionDto.inactive(REVOKED);
+        }
+        String role = validation.roles().isEmpty() ? null : validation.roles().get(0);
+        return new TokenIntrospectionDto(true, validation.status().name(), validation.subject(), role,
+                validation.expiration().getTime() / 1000);
+    }
+
+    // Tokens without a version claim predate it and are judged by signature and expiry alone
+    private boolean isVersionCurrent(TokenValidation validation) {
+        Integer tokenVersion = validation.tokenVersion();
+        return tokenVersion == null || tokenVersionService.isCurrent(validation.userId(), tokenVersion);
+    }
+}
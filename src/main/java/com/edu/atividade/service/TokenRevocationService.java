@@ -0,0 +1,83 @@
+package com.edu.atividade.service;
+
+import com.edu.atividade.cache.LongTimestampMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory denylist for access tokens that must stop working before they expire. Single tokens are
+ * revoked by {@code jti} and kept until their own expiry; all of a user's tokens are revoked with a
+ * not-before time, kept for one token lifetime, after which every token it could reject has expired anyway.
+ * Both checks are a primitive hash lookup (see {@link LongTimestampMap}). The list lives in this instance
+ * only and is lost on restart; at worst that lets a revoked token live out its remaining lifetime.
+ */
+@Service
+public class TokenRevocationService {
+
+    // jti -> exp of the revoked token
+    private final LongTimestampMap revokedTokens;
+    // user id -> tokens issued at or before this second are revoked
+    private final LongTimestampMap notBefore;
+
+    public TokenRevocationService(
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.revocation.stripes:16}") int stripes
+    ) {
+        this.revokedTokens = new LongTimestampMap(stripes, 0);
+        // Rounded up, plus the second lost when iat is truncated
+        this.notBefore = new LongTimestampMap(stripes, (jwtExpiration + 999) / 1000 + 1);
+    }
+
+    /**
+     * Whether a verified token has been revoked, either by itself or along with all of its user's tokens.
+     */
+    public boolean isRevoked(TokenValidation validation) {
+        if (revokedTokens.contains(validation.tokenId())) {
+            return true;
+        }
+        Long userId = validation.userId();
+        if (userId == null) {
+            return false;
+        }
+        long revokedUntil = notBefore.get(userId);
+        return revokedUntil != LongTimestampMap.ABSENT && validation.issuedAt() <= revokedUntil;
+    }
+
+    /**
+     * Revokes one verified token until it expires; returns false when it carries no {@code jti}.
+     */
+    public boolean revoke(TokenValidation validation) {
+        if (!validation.isValid() || validation.tokenId() == 0L) {
+            return false;
+        }
+        revokedTokens.put(validation.tokenId(), validation.expiration().getTime() / 1000);
+        return true;
+    }
+
+    /**
+     * Revokes every token issued to {@code userId} so far. iat has one-second resolution, so tokens issued
+     * later within the same second are rejected too.
+     */
+    public void revokeAll(Long userId) {
+        notBefore.put(userId, System.currentTimeMillis() / 1000);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:60000}",
+            initialDelayString = "${jwt.revocation.prune-interval:60000}")
+    public int pruneExpired() {
+        return revokedTokens.removeExpired() + notBefore.removeExpired();
+    }
+
+    public int revokedTokens() {
+        return revokedTokens.size();
+    }
+
+    public int revokedUsers() {
+        return notBefore.size();
+    }
+
+    public long memoryBytes() {
+        return revokedTokens.memoryBytes() + notBefore.memoryBytes();
+    }
+}
@@ -0,0 +1,84 @@
+package com.edu.atividade.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.RequiredTypeException;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Outcome of verifying a token once: either the verified claims or the reason it was rejected.
+ * {@code tokenId} is the {@code jti} as issued by {@link JwtService} (0 when absent) and {@code issuedAt}
+ * is in epoch seconds.
+ */
+public record TokenValidation(Status status, String subject, Date expiration, List<String> roles,
+                              long tokenId, long issuedAt, Claims claims) {
+
+    public enum Status {
+        VALID,
+        EXPIRED,
+        INVALID_SIGNATURE,
+        MALFORMED,
+        UNSUPPORTED
+    }
+
+    private static final TokenValidation[] FAILURES = new TokenValidation[Status.values().length];
+
+    static {
+        for (Status status : Status.values()) {
+            FAILURES[status.ordinal()] = new TokenValidation(status, null, null, List.of(), 0L, 0L, null);
+        }
+    }
+
+    static TokenValidation valid(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        return new TokenValidation(Status.VALID, claims.getSubject(), claims.getExpiration(), roles(claims),
+                tokenId(claims.getId()), issuedAt == null ? 0L : issuedAt.getTime() / 1000, claims);
+    }
+
+    // Failures carry nothing but the status, so one shared instance per status is enough
+    static TokenValidation failure(Status status) {
+        return FAILURES[status.ordinal()];
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public Long userId() {
+        return claims == null ? null : claim(JwtService.USER_ID_CLAIM, Long.class);
+    }
+
+    public Integer tokenVersion() {
+        return claims == null ? null : claim(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+    }
+
+    // A claim of the wrong type counts as missing instead of throwing
+    private <T> T claim(String name, Class<T> type) {
+        try {
+            return claims.get(name, type);
+        } catch (RequiredTypeException e) {
+            return null;
+        }
+    }
+
+    // JwtService issues the jti as a non-zero 64-bit value in hex; anything else is treated as no id
+    private static long tokenId(String jti) {
+        if (jti == null || jti.isEmpty() || jti.length() > 16) {
+            return 0L;
+        }
+        try {
+            return Long.parseUnsignedLong(jti, 16);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static List<String> roles(Claims claims) {
+        Object roles = claims.get(JwtService.ROLES_CLAIM);
+        if (roles instanceof List<?> list) {
+            return list.stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
+}
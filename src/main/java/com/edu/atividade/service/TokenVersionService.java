@@ -0,0 +1,59 @@
+package com.edu.atividade.service;
+
+import com.edu.atividade.cache.BoundedCache;
+import com.edu.atividade.cache.CacheStats;
+import com.edu.atividade.datasource.ReadRouting;
+import com.edu.atividade.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Answers "is this token version still current for the user?" from memory, reading only the
+ * version column when the local copy is missing or older than the configured TTL.
+ */
+@Service
+public class TokenVersionService {
+
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final BoundedCache<Long, Integer> versions;
+    private final ReadRouting readRouting;
+
+    public TokenVersionService(
+            UserRepository userRepository,
+            ReadRouting readRouting,
+            @Value("${jwt.token-version-ttl:30000}") long ttlMillis,
+            @Value("${jwt.token-version-cache-size:100000}") int maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.versions = new BoundedCache<>(maxSize, ttlMillis);
+        this.readRouting = readRouting;
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        Integer version = versions.get(userId);
+        if (version == null) {
+            // Right after a change a lagging replica would hand back, and re-cache, the old version
+            version = readRouting.primaryIf(readRouting.isRecentlyWritten(userId),
+                    () -> userRepository.findTokenVersionById(userId)).orElse(REVOKED);
+            versions.put(userId, version);
+        }
+        return version != REVOKED && version == tokenVersion;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() != null) {
+            versions.invalidate(event.userId());
+        }
+    }
+
+    public CacheStats stats() {
+        return versions.stats();
+    }
+}
@@ -0,0 +1,22 @@
+package com.edu.atividade.service;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * {@link UsernameNotFoundException} without a stack trace, for logins and tokens naming a user that does not
+ * exist. Login turns it into bad credentials and the JWT filter into an anonymous request; neither looks at
+ * where it was thrown.
+ */
+public class UnknownUsernameException extends UsernameNotFoundException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnknownUsernameException() {
+        super("User not found");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,12 @@
+package com.edu.atividade.service;
+
+/**
+ * Published by {@link UserService} whenever a user row is written or deleted, so in-memory copies can be dropped.
+ * {@code bulk} marks rows written by an import, which nobody is about to read back.
+ */
+public record UserChangedEvent(Long userId, String username, boolean bulk) {
+
+    public UserChangedEvent(Long userId, String username) {
+        this(userId, username, false);
+    }
+}
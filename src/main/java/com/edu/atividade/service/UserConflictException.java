@@ -0,0 +1,57 @@
+package com.edu.atividade.service;
+
+import com.edu.atividade.model.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * A username or email that is already taken, recognised from the unique constraint the write violated.
+ * Conflicts are an everyday answer rather than a bug, so no stack trace is captured; the cause keeps its own.
+ */
+public class UserConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Field { USERNAME, EMAIL }
+
+    private final Field field;
+
+    public UserConflictException(Field field, Throwable cause) {
+        super(field == Field.USERNAME ? "Username already exists" : "Email already exists", cause, false, false);
+        this.field = field;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Maps a violation of the username or email constraint to a conflict; any other violation is returned unchanged.
+     */
+    static RuntimeException translate(DataIntegrityViolationException e) {
+        String constraint = constraintName(e);
+        if (constraint == null) {
+            return e;
+        }
+        // Drivers decorate the name (schema prefix, index suffix, upper case), so match on the part we declared
+        String name = constraint.toLowerCase(Locale.ROOT);
+        if (name.contains(User.USERNAME_CONSTRAINT)) {
+            return new UserConflictException(Field.USERNAME, e);
+        }
+        if (name.contains(User.EMAIL_CONSTRAINT)) {
+            return new UserConflictException(Field.EMAIL, e);
+        }
+        return e;
+    }
+
+    private static String constraintName(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,339 @@
+package com.edu.atividade.service;
+
+import com.edu.atividade.dto.UserImportResultDto;
+import com.edu.atividade.dto.UserProfileDto;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.logging.ExpectedConstraintViolations;
+import com.edu.atividade.model.Role;
+import com.edu.atividade.model.User;
+import com.edu.atividade.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Creates users in bulk from CSV or NDJSON. Lines are parsed and validated as they are read and handled
+ * in chunks: per chunk there is one uniqueness query, password hashing spread over part of the hashing pool
+ * and one batched insert, so memory use depends on the chunk size and not on the size of the upload.
+ * <p>
+ * The hashing pool is shared with login and registration, so an import only ever occupies
+ * {@code auth.import.hashing-threads} of its threads (a quarter by default). A chunk the pool turns away is
+ * reported line by line and the import moves on, keeping what earlier chunks committed.
+ */
+@Service
+public class UserImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int hashingThreads;
+
+    public UserImportService(
+            UserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            PasswordHashingExecutor passwordHashingExecutor,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${auth.import.chunk-size:1000}") int chunkSize,
+            @Value("${auth.import.hashing-threads:0}") int hashingThreads
+    ) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.hashingThreads = hashingThreads > 0
+                ? Math.min(hashingThreads, passwordHashingExecutor.getPoolSize())
+                : Math.max(1, passwordHashingExecutor.getPoolSize() / 4);
+    }
+
+    /**
+     * Imports every valid line of {@code input} as a {@link Role#ROLE_USER}. Invalid lines and lines whose
+     * username or email is already taken are skipped and reported; each chunk commits on its own.
+     */
+    public UserImportResultDto importUsers(InputStream input, Format format) throws IOException {
+        Report report = new Report();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        LineParser parser = this::parseJson;
+        if (format == Format.CSV) {
+            lineNumber++;
+            parser = csvParser(reader.readLine());
+            if (parser == null) {
+                report.reject(lineNumber, "CSV header must name the username, email and password columns");
+                return report.toDto();
+            }
+        }
+
+        List<Candidate> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            UserRegistrationDto row;
+            try {
+                row = parser.parse(line);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                report.reject(lineNumber, "Malformed line");
+                continue;
+            }
+            // A JSON line holding just null parses fine but has nothing to validate
+            if (row == null) {
+                report.reject(lineNumber, "Malformed line");
+                continue;
+            }
+            String violation = firstViolation(row);
+            if (violation != null) {
+                report.reject(lineNumber, violation);
+                continue;
+            }
+            chunk.add(new Candidate(lineNumber, row.getUsername(), row.getEmail(), row.getPassword()));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        return report.toDto();
+    }
+
+    private void importChunk(List<Candidate> chunk, Report report) {
+        // First occurrence wins when the same username or email, ignoring case, repeats inside the chunk
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Candidate> distinct = new ArrayList<>(chunk.size());
+        for (Candidate candidate : chunk) {
+            String username = User.normalize(candidate.username());
+            String email = User.normalize(candidate.email());
+            if (usernames.contains(username)) {
+                report.reject(candidate.line(), "Duplicate username in file");
+            } else if (emails.contains(email)) {
+                report.reject(candidate.line(), "Duplicate email in file");
+            } else {
+                usernames.add(username);
+                emails.add(email);
+                distinct.add(candidate);
+            }
+        }
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (UserProfileDto existing : userRepository.findProfilesByNormalizedUsernameOrEmail(usernames, emails)) {
+            takenUsernames.add(User.normalize(existing.username()));
+            takenEmails.add(User.normalize(existing.email()));
+        }
+        List<Candidate> accepted = new ArrayList<>(distinct.size());
+        for (Candidate candidate : distinct) {
+            if (takenUsernames.contains(User.normalize(candidate.username()))) {
+                report.reject(candidate.line(), "Username already exists");
+            } else if (takenEmails.contains(User.normalize(candidate.email()))) {
+                report.reject(candidate.line(), "Email already exists");
+            } else {
+                accepted.add(candidate);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes;
+        try {
+            hashes = hashAll(accepted);
+        } catch (RejectedExecutionException e) {
+            for (Candidate candidate : accepted) {
+                report.reject(candidate.line(), "Server busy, not imported");
+            }
+            return;
+        }
+        try {
+            insert(accepted, hashes);
+            report.created += accepted.size();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took a name after the check; retry one by one so only the clash is lost
+            for (int i = 0; i < accepted.size(); i++) {
+                try {
+                    insert(accepted.subList(i, i + 1), hashes.subList(i, i + 1));
+                    report.created++;
+                } catch (DataIntegrityViolationException conflict) {
+                    report.reject(accepted.get(i).line(), "Username or email already exists");
+                }
+            }
+        }
+    }
+
+    private void insert(List<Candidate> candidates, List<String> hashes) {
+        ExpectedConstraintViolations.expect(() -> transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = new ArrayList<>(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                Candidate candidate = candidates.get(i);
+                User user = new User();
+                user.setUsername(candidate.username());
+                user.setEmail(candidate.email());
+                user.setPassword(hashes.get(i));
+                user.setRole(Role.ROLE_USER);
+                users.add(user);
+            }
+            // Ids come from the pooled sequence, so Hibernate can send these as JDBC batches
+            userRepository.saveAll(users);
+            userRepository.flush();
+            for (User user : users) {
+                eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername(), true));
+            }
+        }));
+    }
+
+    // One task per import thread, each hashing a contiguous slice, instead of one task per password
+    private List<String> hashAll(List<Candidate> candidates) {
+        int slices = Math.min(hashingThreads, candidates.size());
+        int sliceSize = (candidates.size() + slices - 1) / slices;
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(slices);
+        for (int start = 0; start < candidates.size(); start += sliceSize) {
+            List<Candidate> slice = candidates.subList(start, Math.min(start + sliceSize, candidates.size()));
+            futures.add(passwordHashingExecutor.submit(() -> {
+                List<String> hashes = new ArrayList<>(slice.size());
+                for (Candidate candidate : slice) {
+                    hashes.add(passwordEncoder.encode(candidate.password()));
+                }
+                return hashes;
+            }));
+        }
+        List<String> hashes = new ArrayList<>(candidates.size());
+        for (CompletableFuture<List<String>> future : futures) {
+            hashes.addAll(future.join());
+        }
+        return hashes;
+    }
+
+    private String firstViolation(UserRegistrationDto row) {
+        return validator.validate(row).stream()
+                .min(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .orElse(null);
+    }
+
+    private UserRegistrationDto parseJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, UserRegistrationDto.class);
+    }
+
+    private static LineParser csvParser(String header) {
+        if (header == null) {
+            return null;
+        }
+        List<String> columns = splitCsv(header).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int username = columns.indexOf("username");
+        int email = columns.indexOf("email");
+        int password = columns.indexOf("password");
+        if (username < 0 || email < 0 || password < 0) {
+            return null;
+        }
+        return line -> {
+            List<String> fields = splitCsv(line);
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " fields");
+            }
+            UserRegistrationDto row = new UserRegistrationDto();
+            row.setUsername(fields.get(username));
+            row.setEmail(fields.get(email));
+            row.setPassword(fields.get(password));
+            return row;
+        };
+    }
+
+    // RFC 4180 fields: commas and doubled quotes are allowed inside quoted fields
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private interface LineParser {
+        UserRegistrationDto parse(String line) throws JsonProcessingException;
+    }
+
+    private record Candidate(long line, String username, String email, String password) {}
+
+    private static final class Report {
+
+        private int created;
+        private int rejected;
+        private final List<UserImportResultDto.LineError> errors = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new UserImportResultDto.LineError(line, reason));
+            }
+        }
+
+        UserImportResultDto toDto() {
+            return new UserImportResultDto(created, rejected, List.copyOf(errors));
+        }
+    }
+}
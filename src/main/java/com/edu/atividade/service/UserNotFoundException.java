@@ -0,0 +1,21 @@
+package com.edu.atividade.service;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * A user id or username that matches nobody. The message is fixed, so the response does not echo what was
+ * asked for, and no stack trace is filled in: a lookup miss is an answer, not a fault.
+ */
+public class UserNotFoundException extends EntityNotFoundException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UserNotFoundException() {
+        super("User not found");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,120 +1,206 @@
 package com.edu.atividade.service;
 
+import com.edu.atividade.datasource.ReadRouting;
+import com.edu.atividade.dto.UserProfileDto;
 import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.logging.ExpectedConstraintViolations;
 import com.edu.atividade.model.Role;
 import com.edu.atividade.model.User;
 import com.edu.atividade.model.CustomUserDetails;
 import com.edu.atividade.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadRouting readRouting;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserService(
+            UserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            ApplicationEventPublisher eventPublisher,
+            ReadRouting readRouting,
+            PasswordHashingExecutor passwordHashingExecutor,
+            PlatformTransactionManager transactionManager
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.readRouting = readRouting;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    // Read-only methods may be served by the replica; reads about a user written moments ago stay on the primary
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        User user = readRouting.primaryIf(readRouting.isRecentlyWritten(username),
+                () -> userRepository.findByUsernameNormalized(User.normalize(username)))
+                .orElseThrow(UnknownUsernameException::new);
         return new CustomUserDetails(user);
     }
 
+    @Override
     @Transactional
-    public User registerUser(UserRegistrationDto registrationDto) {
-        if (userRepository.existsByUsername(registrationDto.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-        if (userRepository.existsByEmail(registrationDto.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
-
-        User user = new User();
-        user.setUsername(registrationDto.getUsername());
-        user.setEmail(registrationDto.getEmail());
-        user.setPassword(passwordEncoder.encode(registrationDto.getPassword()));
-        user.setRole(Role.ROLE_USER);
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = getUserByUsername(userDetails.getUsername());
+        user.setPassword(newPassword);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), saved.getUsername()));
+        return new CustomUserDetails(saved);
+    }
 
-        return userRepository.save(user);
+    // Not transactional: the hash is computed before any connection is taken, and saveAndFlush commits the
+    // insert in its own short transaction
+    public User registerUser(UserRegistrationDto registrationDto) {
+        return register(registrationDto, Role.ROLE_USER);
     }
 
-    @Transactional
     public User registerAdmin(UserRegistrationDto registrationDto) {
-        if (userRepository.existsByUsername(registrationDto.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-        if (userRepository.existsByEmail(registrationDto.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
+        return register(registrationDto, Role.ROLE_ADMIN);
+    }
 
-        User user = new User();
-        user.setUsername(registrationDto.getUsername());
-        user.setEmail(registrationDto.getEmail());
-        user.setPassword(passwordEncoder.encode(registrationDto.getPassword()));
-        user.setRole(Role.ROLE_ADMIN);
+    public User registerServiceAccount(UserRegistrationDto registrationDto) {
+        return register(registrationDto, Role.ROLE_INTROSPECT);
+    }
+
+    /**
+     * Returns up to {@code size} users with an id greater than {@code afterId}, in id order.
+     */
+    @Transactional(readOnly = true)
+    public List<UserProfileDto> getProfilesAfter(long afterId, int size) {
+        return userRepository.findProfilesAfter(afterId, Limit.of(size));
+    }
 
-        return userRepository.save(user);
+    /**
+     * Hands every user to {@code action} in id order, reading projected rows from a database cursor,
+     * so memory use does not grow with the size of the table.
+     */
+    @Transactional(readOnly = true)
+    public void forEachProfile(Consumer<UserProfileDto> action) {
+        try (Stream<UserProfileDto> profiles = userRepository.streamProfiles()) {
+            profiles.forEach(action);
+        }
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public UserProfileDto getProfileById(Long id) {
+        return readRouting.primaryIf(readRouting.isRecentlyWritten(id), () -> userRepository.findProfileById(id))
+                .orElseThrow(UserNotFoundException::new);
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
+        return readRouting.primaryIf(readRouting.isRecentlyWritten(id), () -> userRepository.findById(id))
+                .orElseThrow(UserNotFoundException::new);
     }
 
-    @Transactional
+    /**
+     * Not transactional: a new password is hashed on the hashing pool before any connection is taken, and
+     * the change is then applied in a short transaction of its own.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is full
+     */
     public User updateUser(Long id, UserRegistrationDto updateDto) {
-        User user = getUserById(id);
+        String password = updateDto.getPassword();
+        // Only update password if a new one is provided
+        String encodedPassword = password == null || password.isEmpty()
+                ? null
+                : passwordHashingExecutor.submit(() -> passwordEncoder.encode(password)).join();
+        return transactionTemplate.execute(status -> applyUpdate(id, updateDto, encodedPassword));
+    }
 
-        // Check if new username is already taken by another user
-        if (!user.getUsername().equals(updateDto.getUsername()) &&
-            userRepository.existsByUsername(updateDto.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
+    private User applyUpdate(Long id, UserRegistrationDto updateDto, String encodedPassword) {
+        User user = getUserById(id);
 
-        // Check if new email is already taken by another user
-        if (!user.getEmail().equals(updateDto.getEmail()) &&
-            userRepository.existsByEmail(updateDto.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
+        String previousUsername = user.getUsername();
+        boolean usernameChanged = !previousUsername.equals(updateDto.getUsername());
+        boolean passwordChanged = encodedPassword != null;
 
         user.setUsername(updateDto.getUsername());
         user.setEmail(updateDto.getEmail());
-        
-        // Only update password if a new one is provided
-        if (updateDto.getPassword() != null && !updateDto.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(updateDto.getPassword()));
+        if (passwordChanged) {
+            user.setPassword(encodedPassword);
         }
 
-        return userRepository.save(user);
+        // Tokens issued for the old username or password must no longer authenticate
+        if (usernameChanged || passwordChanged) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+
+        User saved = saveUnique(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id, previousUsername));
+        if (usernameChanged) {
+            eventPublisher.publishEvent(new UserChangedEvent(id, saved.getUsername()));
+        }
+        return saved;
     }
 
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new EntityNotFoundException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = getUserById(id);
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getUsername()));
     }
 
+    @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with username: " + username));
+        return readRouting.primaryIf(readRouting.isRecentlyWritten(username),
+                        () -> userRepository.findByUsernameNormalized(User.normalize(username)))
+                .orElseThrow(UserNotFoundException::new);
+    }
+
+    private User register(UserRegistrationDto registrationDto, Role role) {
+        requireAvailable(registrationDto.getUsername(), registrationDto.getEmail());
+        User user = new User();
+        user.setUsername(registrationDto.getUsername());
+        user.setEmail(registrationDto.getEmail());
+        user.setPassword(passwordEncoder.encode(registrationDto.getPassword()));
+        user.setRole(role);
+
+        User saved = saveUnique(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), saved.getUsername()));
+        return saved;
+    }
+
+    // An indexed read before paying for the hash, so a repeated registration fails cheaply and without a
+    // constraint violation; two registrations racing past it are still settled by saveUnique
+    private void requireAvailable(String username, String email) {
+        if (userRepository.existsByUsernameNormalized(User.normalize(username))) {
+            throw new UserConflictException(UserConflictException.Field.USERNAME, null);
+        }
+        if (userRepository.existsByEmailNormalized(User.normalize(email))) {
+            throw new UserConflictException(UserConflictException.Field.EMAIL, null);
+        }
+    }
+
+    // The unique constraints have the final word on whether a username or email is free
+    private User saveUnique(User user) {
+        try {
+            return ExpectedConstraintViolations.expect(() -> userRepository.saveAndFlush(user));
+        } catch (DataIntegrityViolationException e) {
+            throw UserConflictException.translate(e);
+        }
     }
-} 
\ No newline at end of file
+}
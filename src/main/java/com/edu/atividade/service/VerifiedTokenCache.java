@@ -0,0 +1,92 @@
+package com.edu.atividade.service;
+
+import com.edu.atividade.cache.BoundedCache;
+import com.edu.atividade.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+/**
+ * Remembers tokens that already passed signature verification, keyed by a seeded 64-bit hash of the
+ * raw token. A hit skips HMAC verification and claim decoding; entries never outlive the token's exp.
+ * The full token is kept and compared in constant time, so a hash collision is only ever a cache miss.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final boolean enabled;
+    private final long maxTtlMillis;
+    private final long seed;
+    private final BoundedCache<Long, CachedToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${jwt.verified-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.verified-cache.max-size:10000}") int maxSize,
+            @Value("${jwt.verified-cache.max-ttl:300000}") long maxTtlMillis
+    ) {
+        this.enabled = enabled;
+        this.maxTtlMillis = maxTtlMillis;
+        this.seed = new SecureRandom().nextLong();
+        this.cache = new BoundedCache<>(maxSize, maxTtlMillis);
+    }
+
+    public static VerifiedTokenCache disabled() {
+        return new VerifiedTokenCache(false, 1, 0);
+    }
+
+    /**
+     * Looks up the token that starts at {@code offset} in {@code source}, without copying it out.
+     */
+    TokenValidation get(String source, int offset) {
+        if (!enabled) {
+            return null;
+        }
+        CachedToken cached = cache.get(hash(source, offset));
+        if (cached == null || !constantTimeEquals(cached.token(), source, offset)) {
+            return null;
+        }
+        return cached.validation();
+    }
+
+    void put(String token, TokenValidation validation) {
+        if (!enabled || validation.expiration() == null) {
+            return;
+        }
+        long expiresAt = Math.min(validation.expiration().getTime(), System.currentTimeMillis() + maxTtlMillis);
+        cache.put(hash(token, 0), new CachedToken(token, validation), expiresAt);
+    }
+
+    void clear() {
+        cache.clear();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private long hash(CharSequence token, int offset) {
+        // FNV-1a with a per-process offset basis, so collisions cannot be precomputed offline
+        long hash = seed;
+        for (int i = offset; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static boolean constantTimeEquals(String expected, CharSequence actual, int offset) {
+        if (expected.length() != actual.length() - offset) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < expected.length(); i++) {
+            diff |= expected.charAt(i) ^ actual.charAt(offset + i);
+        }
+        return diff == 0;
+    }
+
+    private record CachedToken(String token, TokenValidation validation) {}
+}
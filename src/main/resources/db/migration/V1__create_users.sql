@@ -0,0 +1,20 @@
+-- Baseline: the users table as the entity stood when migrations were introduced. This is not what the
+-- original ddl-auto=update schema looked like: token_version, users_seq (pooled ids) and the named
+-- constraints came later. A database created before migrations must be brought to this shape by hand
+-- before it is baselined at version 1 (see "Banco criado antes das migrações" in the README).
+-- Plain SQL that runs unchanged on H2 and PostgreSQL.
+
+create sequence users_seq start with 1 increment by 50;
+
+create table users (
+    id            bigint       not null,
+    username      varchar(255) not null,
+    email         varchar(255) not null,
+    password      varchar(255) not null,
+    role          varchar(255),
+    token_version integer      not null,
+    constraint pk_users primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email),
+    constraint ck_users_role check (role in ('ROLE_USER', 'ROLE_ADMIN'))
+);
@@ -0,0 +1,16 @@
+-- Lowercased copies of username and email used for case-insensitive lookups. The unique constraints
+-- move onto them, so they double as the indexes behind login and the registration conflict checks.
+
+alter table users add column username_normalized varchar(255);
+alter table users add column email_normalized varchar(255);
+
+update users set username_normalized = lower(username), email_normalized = lower(email);
+
+alter table users alter column username_normalized set not null;
+alter table users alter column email_normalized set not null;
+
+-- Fails here, leaving the old constraints in place, if two existing accounts differ only in case
+alter table users drop constraint uk_users_username;
+alter table users drop constraint uk_users_email;
+alter table users add constraint uk_users_username unique (username_normalized);
+alter table users add constraint uk_users_email unique (email_normalized);
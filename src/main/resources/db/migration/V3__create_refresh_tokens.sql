@@ -0,0 +1,21 @@
+-- Opaque refresh tokens, stored only as a SHA-256 hash. Tokens issued from one login share a family;
+-- presenting an already rotated token deletes the whole family.
+
+create sequence refresh_tokens_seq start with 1 increment by 50;
+
+create table refresh_tokens (
+    id            bigint                   not null,
+    token_hash    varchar(43)              not null,
+    user_id       bigint                   not null,
+    family_id     uuid                     not null,
+    token_version integer                  not null,
+    expires_at    timestamp(6) with time zone not null,
+    used_at       timestamp(6) with time zone,
+    constraint pk_refresh_tokens primary key (id),
+    constraint uk_refresh_tokens_hash unique (token_hash),
+    constraint fk_refresh_tokens_user foreign key (user_id) references users (id) on delete cascade
+);
+
+create index ix_refresh_tokens_family on refresh_tokens (family_id);
+create index ix_refresh_tokens_user on refresh_tokens (user_id);
+create index ix_refresh_tokens_expires on refresh_tokens (expires_at);
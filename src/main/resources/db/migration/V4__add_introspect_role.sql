@@ -0,0 +1,4 @@
+-- Service accounts limited to token introspection.
+
+alter table users drop constraint ck_users_role;
+alter table users add constraint ck_users_role check (role in ('ROLE_USER', 'ROLE_ADMIN', 'ROLE_INTROSPECT'));
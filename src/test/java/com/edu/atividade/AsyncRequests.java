@@ -0,0 +1,26 @@
+package com.edu.atividade;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Login and registration answer with a CompletableFuture, so MockMvc needs a second, async dispatch to see
+ * the response.
+ */
+final class AsyncRequests {
+
+    private AsyncRequests() {
+    }
+
+    static ResultActions performAsync(MockMvc mockMvc, RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
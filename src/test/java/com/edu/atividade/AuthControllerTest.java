@@ -2,17 +2,25 @@ package com.edu.atividade;
 
 import com.edu.atividade.dto.UserLoginDto;
 import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.repository.UserRepository;
 import com.edu.atividade.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import static com.edu.atividade.AsyncRequests.performAsync;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -28,6 +36,9 @@ class AuthControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserRepository userRepository;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -51,7 +62,7 @@ class AuthControllerTest {
         loginDto.setPassword("password123");
 
         // Act & Assert - Testar o endpoint de login
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(mockMvc, post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isOk())
@@ -61,6 +72,30 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.role").value("ROLE_USER"));
     }
 
+    @Test
+    void testLoginFailuresGetTheSameUnauthorizedAnswer() throws Exception {
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername("wrongpassuser");
+        registrationDto.setEmail("wrongpass@example.com");
+        registrationDto.setPassword("password123");
+        userService.registerUser(registrationDto);
+
+        UserLoginDto wrongPassword = new UserLoginDto();
+        wrongPassword.setUsername("wrongpassuser");
+        wrongPassword.setPassword("not-the-password");
+        UserLoginDto unknownUser = new UserLoginDto();
+        unknownUser.setUsername("nosuchuser");
+        unknownUser.setPassword("password123");
+
+        for (UserLoginDto loginDto : new UserLoginDto[] { wrongPassword, unknownUser }) {
+            performAsync(mockMvc, post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(loginDto)))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(jsonPath("$.error").value("Invalid username or password"));
+        }
+    }
+
     @Test
     void testLoginFailureEmptyFields() throws Exception {
         // Arrange - Dados de login vazios
@@ -82,7 +117,7 @@ class AuthControllerTest {
         registrationDto.setEmail("newuser@example.com");
         registrationDto.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(mockMvc, post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(registrationDto)))
                 .andExpect(status().isOk())
@@ -107,7 +142,7 @@ class AuthControllerTest {
         duplicateDto.setEmail("anotheremail@example.com");
         duplicateDto.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(mockMvc, post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(duplicateDto)))
                 .andExpect(status().isConflict());
@@ -128,12 +163,51 @@ class AuthControllerTest {
         duplicateDto.setEmail("duplicateemail@example.com");
         duplicateDto.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(mockMvc, post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(duplicateDto)))
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void testLoginIgnoresUsernameCase() throws Exception {
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername("MixedCaseUser");
+        registrationDto.setEmail("mixedcase@example.com");
+        registrationDto.setPassword("password123");
+        userService.registerUser(registrationDto);
+
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername("mixedcaseuser");
+        loginDto.setPassword("password123");
+
+        performAsync(mockMvc, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("MixedCaseUser"));
+    }
+
+    @Test
+    void testRegisterCaseVariantOfExistingUserConflicts() throws Exception {
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername("caseduser");
+        registrationDto.setEmail("cased@example.com");
+        registrationDto.setPassword("password123");
+        userService.registerUser(registrationDto);
+
+        UserRegistrationDto variantDto = new UserRegistrationDto();
+        variantDto.setUsername("anothercaseduser");
+        variantDto.setEmail("Cased@Example.com");
+        variantDto.setPassword("password123");
+
+        performAsync(mockMvc, post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(variantDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Email already exists"));
+    }
+
     @Test
     void testRegisterWithEmptyFields() throws Exception {
         UserRegistrationDto registrationDto = new UserRegistrationDto();
@@ -146,4 +220,104 @@ class AuthControllerTest {
                 .content(objectMapper.writeValueAsString(registrationDto)))
                 .andExpect(status().isBadRequest());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testLoginRehashesLegacyPassword() throws Exception {
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername("legacyuser");
+        registrationDto.setEmail("legacy@example.com");
+        registrationDto.setPassword("password123");
+        User user = userService.registerUser(registrationDto);
+
+        // Hash as stored before the delegating encoder: no {id} prefix and a low cost
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        userRepository.save(user);
+
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername("legacyuser");
+        loginDto.setPassword("password123");
+
+        performAsync(mockMvc, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk());
+
+        assertThat(userRepository.findByUsername("legacyuser").orElseThrow().getPassword()).startsWith("{bcrypt}$2a$10$");
+    }
+
+    @Test
+    void testRepeatedLoginAttemptsAreThrottled() throws Exception {
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername("throttleduser");
+        registrationDto.setEmail("throttled@example.com");
+        registrationDto.setPassword("password123");
+        userService.registerUser(registrationDto);
+
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername("ThrottledUser");
+        loginDto.setPassword("wrongpassword");
+        String body = objectMapper.writeValueAsString(loginDto);
+
+        // One address gets 5 attempts at a username, whatever its case
+        for (int i = 0; i < 5; i++) {
+            performAsync(mockMvc, post("/api/auth/login")
+                    .with(r -> { r.setRemoteAddr("10.0.0.1"); return r; })
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+        }
+
+        loginDto.setUsername("throttleduser");
+        loginDto.setPassword("password123");
+        String validBody = objectMapper.writeValueAsString(loginDto);
+        mockMvc.perform(post("/api/auth/login")
+                .with(r -> { r.setRemoteAddr("10.0.0.1"); return r; })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(validBody))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(request().asyncNotStarted());
+
+        // Those failures do not lock the user out from another address
+        performAsync(mockMvc, post("/api/auth/login")
+                .with(r -> { r.setRemoteAddr("10.0.0.2"); return r; })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(validBody))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGuessesSpreadOverAddressesAreThrottledPerAccount() throws Exception {
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername("spreaduser");
+        registrationDto.setEmail("spread@example.com");
+        registrationDto.setPassword("password123");
+        userService.registerUser(registrationDto);
+
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername("spreaduser");
+        loginDto.setPassword("wrongpassword");
+        String body = objectMapper.writeValueAsString(loginDto);
+
+        // At most 3 attempts from each of 15 addresses: no address or pair runs out, only the account's 30
+        // (plus what refills while the test runs)
+        int attempts = 0;
+        MvcResult result;
+        do {
+            String address = "10.1.0." + (attempts % 15);
+            result = mockMvc.perform(post("/api/auth/login")
+                    .with(r -> { r.setRemoteAddr(address); return r; })
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andReturn();
+            if (result.getRequest().isAsyncStarted()) {
+                mockMvc.perform(asyncDispatch(result)).andExpect(status().isUnauthorized());
+            }
+            attempts++;
+        } while (result.getResponse().getStatus() != HttpStatus.TOO_MANY_REQUESTS.value() && attempts < 45);
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(result.getResponse().getHeader("Retry-After")).isNotNull();
+        assertThat(attempts).isGreaterThan(30);
+    }
+
+}
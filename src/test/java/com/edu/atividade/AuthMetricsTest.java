@@ -0,0 +1,147 @@
+package com.edu.atividade;
+
+import com.edu.atividade.dto.UserLoginDto;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.metrics.AuthMetrics;
+import com.edu.atividade.service.UserConflictException;
+import com.edu.atividade.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.UUID;
+
+import static com.edu.atividade.AsyncRequests.performAsync;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+class AuthMetricsTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void testLoginRecordsOutcomeAndTimings() throws Exception {
+        String username = "metrics_" + UUID.randomUUID().toString().substring(0, 8);
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername(username);
+        registrationDto.setEmail(username + "@email.com");
+        registrationDto.setPassword("password123");
+        userService.registerUser(registrationDto);
+
+        double successes = loginCount("success");
+        double badCredentials = loginCount("bad_credentials");
+        long matches = registry.get("auth.password.match").timer().count();
+        long generated = registry.get("auth.token.generate").timer().count();
+
+        login(username, "password123");
+        login(username, "wrong-password");
+
+        assertThat(loginCount("success")).isEqualTo(successes + 1);
+        assertThat(loginCount("bad_credentials")).isEqualTo(badCredentials + 1);
+        assertThat(registry.get("auth.password.match").timer().count()).isEqualTo(matches + 2);
+        assertThat(registry.get("auth.token.generate").timer().count()).isEqualTo(generated + 1);
+    }
+
+    @Test
+    void testDuplicateRegistrationIsRefusedBeforeHashing() {
+        String username = "dup_" + UUID.randomUUID().toString().substring(0, 8);
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername(username);
+        registrationDto.setEmail(username + "@email.com");
+        registrationDto.setPassword("password123");
+        userService.registerUser(registrationDto);
+        long hashes = registry.get("auth.password.hash").timer().count();
+
+        registrationDto.setUsername(username.toUpperCase());
+        assertThatThrownBy(() -> userService.registerUser(registrationDto)).isInstanceOf(UserConflictException.class);
+        registrationDto.setUsername(username + "_other");
+        assertThatThrownBy(() -> userService.registerUser(registrationDto)).isInstanceOf(UserConflictException.class);
+
+        assertThat(registry.get("auth.password.hash").timer().count()).isEqualTo(hashes);
+    }
+
+    @Test
+    void testInvalidTokenIsCountedByCause() throws Exception {
+        double invalid = registry.get("auth.filter").tag("result", "invalid_token").counter().count();
+        long malformed = registry.get("auth.token.verify").tag("result", "malformed").timer().count();
+
+        mockMvc.perform(get("/api/users").header("Authorization", "Bearer not-a-token"));
+
+        assertThat(registry.get("auth.filter").tag("result", "invalid_token").counter().count()).isEqualTo(invalid + 1);
+        assertThat(registry.get("auth.token.verify").tag("result", "malformed").timer().count()).isEqualTo(malformed + 1);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testPrometheusEndpointExportsHistograms() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("auth_token_verify_seconds_bucket")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"verifiedTokens\"")));
+    }
+
+    @Test
+    @WithMockUser
+    void testActuatorRequiresAdminExceptHealth() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void testDisabledMetricsRecordNothing() {
+        AuthMetrics disabled = AuthMetrics.disabled();
+        assertThat(disabled.start()).isZero();
+        disabled.recordTokenGenerate(0);
+        disabled.countLogin(AuthMetrics.LoginOutcome.SUCCESS);
+        assertThat(disabled.isEnabled()).isFalse();
+    }
+
+    private double loginCount(String result) {
+        return registry.get("auth.login").tag("result", result).counter().count();
+    }
+
+    private void login(String username, String password) throws Exception {
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername(username);
+        loginDto.setPassword(password);
+        performAsync(mockMvc, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDto)));
+    }
+}
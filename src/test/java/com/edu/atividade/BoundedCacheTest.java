@@ -0,0 +1,62 @@
+package com.edu.atividade;
+
+import com.edu.atividade.cache.BoundedCache;
+import com.edu.atividade.cache.CacheStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 100, clock::get);
+        cache.put("a", "1");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        clock.addAndGet(100);
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void testPerEntryExpiryIsHonoured() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 10_000, clock::get);
+        cache.put("short", "1", clock.get() + 5);
+        cache.put("long", "2");
+
+        clock.addAndGet(10);
+
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("long")).isEqualTo("2");
+    }
+
+    @Test
+    void testSizeStaysWithinBound() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100, 10_000, clock::get);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.stats().evictions()).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void testStatsCountHitsMissesAndInvalidations() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 10_000, clock::get);
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("b");
+        cache.invalidate("a");
+
+        CacheStats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.evictions()).isEqualTo(1);
+        assertThat(stats.size()).isZero();
+    }
+}
@@ -0,0 +1,189 @@
+package com.edu.atividade;
+
+import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.TokenValidation;
+import com.edu.atividade.service.VerifiedTokenCache;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String NEW_SECRET = "7A25432A462D4A614E645267556B58703273357638792F423F4528472B4B6250";
+
+    private JwtService jwtService;
+    private UserDetails user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, List.of(), 60_000);
+        user = User.withUsername("jwtuser").password("x").roles("USER").build();
+    }
+
+    @Test
+    void testTokenRoundTrip() {
+        String token = jwtService.generateToken(user);
+
+        assertThat(jwtService.extractUsername(token)).isEqualTo("jwtuser");
+        assertThat(jwtService.isTokenValid(token, user)).isTrue();
+    }
+
+    @Test
+    void testRotationKeepsInFlightTokensValid() {
+        String oldToken = jwtService.generateToken(user);
+
+        jwtService.rotateSigningKey(NEW_SECRET);
+        String newToken = jwtService.generateToken(user);
+
+        assertThat(jwtService.isTokenValid(oldToken, user)).isTrue();
+        assertThat(jwtService.isTokenValid(newToken, user)).isTrue();
+    }
+
+    @Test
+    void testTokenFromRetiredSecretAcceptedOnlyWhenConfigured() {
+        JwtService oldNode = new JwtService(SECRET, List.of(), 60_000);
+        String oldToken = oldNode.generateToken(user);
+
+        JwtService rotatedNode = new JwtService(NEW_SECRET, List.of(SECRET), 60_000);
+        JwtService unawareNode = new JwtService(NEW_SECRET, List.of(), 60_000);
+
+        assertThat(rotatedNode.extractUsername(oldToken)).isEqualTo("jwtuser");
+        assertThatThrownBy(() -> unawareNode.extractUsername(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void testValidateTokenReturnsClaimsFromSingleParse() {
+        String token = jwtService.generateToken(user);
+
+        TokenValidation validation = jwtService.validateToken(token);
+
+        assertThat(validation.isValid()).isTrue();
+        assertThat(validation.subject()).isEqualTo("jwtuser");
+        assertThat(validation.expiration()).isInTheFuture();
+        assertThat(validation.roles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void testValidateTokenReportsFailureReason() {
+        JwtService expiringService = new JwtService(SECRET, List.of(), -1_000);
+        String expired = expiringService.generateToken(user);
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThat(jwtService.validateToken(expired).status()).isEqualTo(TokenValidation.Status.EXPIRED);
+        assertThat(jwtService.validateToken(tampered).status()).isEqualTo(TokenValidation.Status.INVALID_SIGNATURE);
+        assertThat(jwtService.validateToken("not-a-jwt").status()).isEqualTo(TokenValidation.Status.MALFORMED);
+    }
+
+    @Test
+    void testExpiryIsReportedWithoutException() {
+        JwtService expiringService = new JwtService(SECRET, List.of(), -1_000);
+        String expired = expiringService.generateToken(user);
+        String forged = expired.substring(0, expired.length() - 4) + "AAAA";
+
+        assertThat(expiringService.validateToken(expired)).isSameAs(expiringService.validateToken(expired));
+        // Expiry is only judged once the signature holds
+        assertThat(expiringService.validateToken(forged).status()).isEqualTo(TokenValidation.Status.INVALID_SIGNATURE);
+        assertThatThrownBy(() -> expiringService.extractUsername(expired)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void testPrecheckTurnsAwayJunkBeforeParsing() {
+        String token = jwtService.generateToken(user);
+        String[] parts = token.split("\\.");
+        String foreignHeader = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"kid\":\"someone-else\",\"alg\":\"HS256\"}".getBytes());
+
+        assertThat(jwtService.validateToken("Bearer " + token, 7).isValid()).isTrue();
+        assertThat(jwtService.validateToken(parts[0] + "." + parts[1]).status()).isEqualTo(TokenValidation.Status.MALFORMED);
+        assertThat(jwtService.validateToken(token + ".extra").status()).isEqualTo(TokenValidation.Status.MALFORMED);
+        assertThat(jwtService.validateToken(token.replace('-', '+').replace('_', '/') + "==").status())
+                .isEqualTo(TokenValidation.Status.MALFORMED);
+        assertThat(jwtService.validateToken("a".repeat(20_000) + ".b.c").status()).isEqualTo(TokenValidation.Status.MALFORMED);
+        assertThat(jwtService.validateToken(foreignHeader + "." + parts[1] + "." + parts[2]).status())
+                .isEqualTo(TokenValidation.Status.MALFORMED);
+        assertThat(jwtService.validateToken(token + "AAAA").status()).isEqualTo(TokenValidation.Status.MALFORMED);
+        // Failures carry no per-token data, so they are shared rather than allocated
+        assertThat(jwtService.validateToken("x.y.z")).isSameAs(jwtService.validateToken("not-a-jwt.at.all"));
+    }
+
+    @Test
+    void testVerifiedTokenCacheServesRepeatedTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 60_000);
+        JwtService cachingService = new JwtService(SECRET, List.of(), 60_000, cache);
+        String token = cachingService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        TokenValidation first = cachingService.validateToken(token);
+        TokenValidation second = cachingService.validateToken(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cachingService.validateToken(tampered).isValid()).isFalse();
+    }
+
+    @Test
+    void testEs256TokensVerifyWithPublishedKey() throws Exception {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtService ecService = new JwtService(keyPair, List.of(), 60_000);
+        String token = ecService.generateToken(user);
+
+        assertThat(ecService.validateToken(token).isValid()).isTrue();
+        // A verifier holding only the published JWK accepts the token
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) ecService.jwks().get("keys")).get(0);
+        String kid = Jwts.parserBuilder().setSigningKey(publicKey(jwk)).build()
+                .parseClaimsJws(token).getHeader().getKeyId();
+        assertThat(kid).isEqualTo(jwk.get("kid"));
+        // An HS256 token is not accepted by an ES256 node
+        String forged = new JwtService(SECRET, List.of(), 60_000).generateToken(user);
+        assertThat(ecService.validateToken(forged).isValid()).isFalse();
+    }
+
+    @Test
+    void testEs256RotationPublishesBothKeys() {
+        JwtService ecService = new JwtService(Keys.keyPairFor(SignatureAlgorithm.ES256), List.of(), 60_000);
+        String oldToken = ecService.generateToken(user);
+        String oldETag = ecService.jwksETag();
+
+        ecService.rotateSigningKey(Keys.keyPairFor(SignatureAlgorithm.ES256));
+
+        assertThat(ecService.validateToken(oldToken).isValid()).isTrue();
+        assertThat((List<?>) ecService.jwks().get("keys")).hasSize(2);
+        assertThat(ecService.jwksETag()).isNotEqualTo(oldETag);
+        assertThat((List<?>) jwtService.jwks().get("keys")).isEmpty();
+    }
+
+    private static PublicKey publicKey(Map<String, Object> jwk) throws Exception {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECPoint point = new ECPoint(
+                new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("x"))),
+                new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("y"))));
+        return KeyFactory.getInstance("EC").generatePublic(
+                new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.edu.atividade;
+
+import com.edu.atividade.cache.LongTimestampMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongTimestampMapTest {
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    @Test
+    void testEntriesExpireAfterTimestampPlusRetention() {
+        LongTimestampMap map = new LongTimestampMap(4, 60, clock::get);
+        long now = clock.get() / 1000;
+        map.put(42L, now);
+
+        assertThat(map.get(42L)).isEqualTo(now);
+        clock.addAndGet(59_000);
+        assertThat(map.contains(42L)).isTrue();
+        clock.addAndGet(1_000);
+        assertThat(map.contains(42L)).isFalse();
+        assertThat(map.removeExpired()).isEqualTo(1);
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void testLaterTimestampWins() {
+        LongTimestampMap map = new LongTimestampMap(1, 0, clock::get);
+        long now = clock.get() / 1000;
+        map.put(7L, now + 100);
+        map.put(7L, now + 50);
+
+        assertThat(map.get(7L)).isEqualTo(now + 100);
+        assertThat(map.get(8L)).isEqualTo(LongTimestampMap.ABSENT);
+    }
+
+    @Test
+    void testMillionEntriesFitInAboutTwentyFiveMegabytes() {
+        LongTimestampMap map = new LongTimestampMap(16, 0, clock::get);
+        long expiresAt = clock.get() / 1000 + 900;
+        SplittableRandom random = new SplittableRandom(1);
+        long[] keys = new long[1_000_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong() | 1;
+            map.put(keys[i], expiresAt);
+        }
+
+        assertThat(map.size()).isEqualTo(keys.length);
+        for (long key : keys) {
+            assertThat(map.get(key)).isEqualTo(expiresAt);
+        }
+        // 12 bytes per slot at a load factor between 3/8 and 3/4: at most 32 bytes per entry
+        assertThat(map.memoryBytes()).isLessThanOrEqualTo(26L * keys.length);
+
+        clock.addAndGet(901_000);
+        map.removeExpired();
+        assertThat(map.memoryBytes()).isLessThan(16 * 1024);
+    }
+
+    @Test
+    void testReadsStayConsistentWhileStripesGrowAndShrink() throws Exception {
+        // One stripe so every put, prune and lookup races on the same table
+        LongTimestampMap map = new LongTimestampMap(1, 1, clock::get);
+        // Hashes to the last slot of any table up to 2^20 slots, so a torn read would index past a shrunk array
+        long permanent = 0x456EF9L;
+        map.put(permanent, 0xFFFF_FFF0L);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            tasks.add(CompletableFuture.runAsync(() -> {
+                SplittableRandom random = new SplittableRandom(2);
+                while (running.get()) {
+                    // Short-lived entries: the stripe keeps growing, then shrinking when they are pruned
+                    map.put(random.nextLong() | 1, clock.get() / 1000);
+                }
+            }, pool));
+            tasks.add(CompletableFuture.runAsync(() -> {
+                while (running.get()) {
+                    clock.addAndGet(1_000);
+                    map.removeExpired();
+                }
+            }, pool));
+            for (int reader = 0; reader < 2; reader++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    SplittableRandom random = new SplittableRandom(3);
+                    while (running.get()) {
+                        map.get(random.nextLong() | 1);
+                        assertThat(map.contains(permanent)).isTrue();
+                    }
+                }, pool));
+            }
+            Thread.sleep(1_000);
+            running.set(false);
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            running.set(false);
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.edu.atividade;
+
+import com.edu.atividade.config.PasswordEncoderConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncoderConfigTest {
+
+    @Test
+    void testSwitchingAlgorithmKeepsOldHashesVerifiable() {
+        PasswordEncoder bcrypt = PasswordEncoderConfig.create("bcrypt", 4, 0);
+        PasswordEncoder argon2 = PasswordEncoderConfig.create("argon2", 4, 0);
+        String bcryptHash = bcrypt.encode("secret");
+
+        assertThat(argon2.matches("secret", bcryptHash)).isTrue();
+        assertThat(argon2.upgradeEncoding(bcryptHash)).isTrue();
+        assertThat(argon2.encode("secret")).startsWith("{argon2}");
+    }
+
+    @Test
+    void testHashBelowTargetCostIsUpgraded() {
+        PasswordEncoder weak = PasswordEncoderConfig.create("bcrypt", 4, 0);
+        PasswordEncoder calibrated = PasswordEncoderConfig.create("bcrypt", 4, 50);
+        String weakHash = weak.encode("secret");
+
+        assertThat(calibrated.matches("secret", weakHash)).isTrue();
+        assertThat(calibrated.upgradeEncoding(weakHash)).isTrue();
+        assertThat(calibrated.upgradeEncoding(calibrated.encode("secret"))).isFalse();
+    }
+}
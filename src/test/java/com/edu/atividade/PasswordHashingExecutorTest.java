@@ -0,0 +1,46 @@
+package com.edu.atividade;
+
+import com.edu.atividade.service.PasswordHashingExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void testRejectsWorkWhenPoolAndQueueAreFull() {
+        CompletableFuture<String> running = executor.submit(this::blockUntilReleased);
+        CompletableFuture<String> queued = executor.submit(this::blockUntilReleased);
+
+        assertThatThrownBy(() -> executor.submit(this::blockUntilReleased))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        assertThat(running.join()).isEqualTo("done");
+        assertThat(queued.join()).isEqualTo("done");
+    }
+
+    private String blockUntilReleased() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
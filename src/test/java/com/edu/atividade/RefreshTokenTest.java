@@ -0,0 +1,129 @@
+package com.edu.atividade;
+
+import com.edu.atividade.dto.UserLoginDto;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static com.edu.atividade.AsyncRequests.performAsync;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "auth.password.bcrypt-strength=4")
+class RefreshTokenTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    private MockMvc mockMvc;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+        String username = "refresh_" + UUID.randomUUID().toString().substring(0, 8);
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(username);
+        dto.setEmail(username + "@email.com");
+        dto.setPassword("password123");
+        user = userService.registerUser(dto);
+    }
+
+    @Test
+    void testRefreshRotatesTokens() throws Exception {
+        JsonNode login = login();
+        assertThat(login.get("expiresIn").asLong()).isEqualTo(900);
+
+        JsonNode refreshed = refresh(login.get("refreshToken").asText())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(user.getUsername()))
+                .andReturn().getResponse().getContentAsString().transform(this::json);
+
+        assertThat(refreshed.get("refreshToken").asText()).isNotEqualTo(login.get("refreshToken").asText());
+        mockMvc.perform(get("/api/users/profile")
+                .header("Authorization", "Bearer " + refreshed.get("token").asText()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testReusedRefreshTokenRevokesItsFamily() throws Exception {
+        String first = login().get("refreshToken").asText();
+        String second = json(refresh(first).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("refreshToken").asText();
+
+        refresh(first)
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Invalid refresh token"));
+        // The legitimate holder of the rotated token is logged out too
+        refresh(second).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testPasswordChangeEndsRefreshTokens() throws Exception {
+        String refreshToken = login().get("refreshToken").asText();
+
+        UserRegistrationDto update = new UserRegistrationDto();
+        update.setUsername(user.getUsername());
+        update.setEmail(user.getEmail());
+        update.setPassword("changedpass");
+        userService.updateUser(user.getId(), update);
+
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testUnknownRefreshTokenIsRejected() throws Exception {
+        refresh("not-a-token").andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode login() throws Exception {
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername(user.getUsername());
+        loginDto.setPassword("password123");
+        return json(performAsync(mockMvc, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))));
+    }
+
+    private JsonNode json(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.edu.atividade;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.Role;
+import com.edu.atividade.model.User;
+import com.edu.atividade.repository.UserRepository;
+import com.edu.atividade.service.UserConflictException;
+import com.edu.atividade.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "auth.password.bcrypt-strength=4")
+class RegistrationConcurrencyTest {
+
+    private static final int PARALLELISM = 64;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testConcurrentRegistrationsWithSameUsernameCreateOneUser() throws Exception {
+        String username = "race_" + UUID.randomUUID().toString().substring(0, 8);
+
+        List<Object> outcomes = registerConcurrently(i -> registration(username, username + "_" + i + "@email.com"));
+
+        assertThat(outcomes).filteredOn(outcome -> outcome == Boolean.TRUE).hasSize(1);
+        assertThat(outcomes).filteredOn(UserConflictException.class::isInstance)
+                .hasSize(PARALLELISM - 1)
+                .allMatch(e -> ((UserConflictException) e).getField() == UserConflictException.Field.USERNAME);
+        assertThat(userRepository.findAll()).filteredOn(user -> user.getUsername().equals(username)).hasSize(1);
+    }
+
+    @Test
+    void testConcurrentRegistrationsWithSameEmailCreateOneUser() throws Exception {
+        String prefix = "race_" + UUID.randomUUID().toString().substring(0, 8);
+        String email = prefix + "@email.com";
+
+        List<Object> outcomes = registerConcurrently(i -> registration(prefix + "_" + i, email));
+
+        assertThat(outcomes).filteredOn(outcome -> outcome == Boolean.TRUE).hasSize(1);
+        assertThat(outcomes).filteredOn(UserConflictException.class::isInstance)
+                .hasSize(PARALLELISM - 1)
+                .allMatch(e -> ((UserConflictException) e).getField() == UserConflictException.Field.EMAIL);
+        assertThat(userRepository.findAll()).filteredOn(user -> user.getEmail().equals(email)).hasSize(1);
+    }
+
+    @Test
+    void testOnlyExpectedViolationsAreKeptOutOfTheLog() throws Exception {
+        Logger hibernateLog = (Logger) LoggerFactory.getLogger("org.hibernate.engine.jdbc.spi.SqlExceptionHelper");
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        hibernateLog.addAppender(appender);
+        try {
+            String username = "race_" + UUID.randomUUID().toString().substring(0, 8);
+            registerConcurrently(i -> registration(username, username + "_" + i + "@email.com"));
+            assertThat(appender.list).isEmpty();
+
+            // The same violation outside the registration path is not expected, so it is still logged
+            User clash = new User(null, username, username + "_clash@email.com", "x", Role.ROLE_USER);
+            assertThatThrownBy(() -> userRepository.saveAndFlush(clash))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThat(appender.list).isNotEmpty();
+        } finally {
+            hibernateLog.detachAppender(appender);
+        }
+    }
+
+    // Each outcome is TRUE for a created user or the exception the registration threw
+    private List<Object> registerConcurrently(IntFunction<UserRegistrationDto> registrations) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(PARALLELISM)) {
+            for (int i = 0; i < PARALLELISM; i++) {
+                UserRegistrationDto dto = registrations.apply(i);
+                futures.add(threads.submit(() -> {
+                    start.await();
+                    try {
+                        userService.registerUser(dto);
+                        return Boolean.TRUE;
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private static UserRegistrationDto registration(String username, String email) {
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(username);
+        dto.setEmail(email);
+        dto.setPassword("password123");
+        return dto;
+    }
+}
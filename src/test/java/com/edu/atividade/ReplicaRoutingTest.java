@@ -0,0 +1,132 @@
+package com.edu.atividade;
+
+import com.edu.atividade.datasource.ReadRouting;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.service.TokenVersionService;
+import com.edu.atividade.service.UserChangedEvent;
+import com.edu.atividade.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Two independent H2 databases and no replication between them, so where a row is found shows where the read went
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "auth.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "auth.password.bcrypt-strength=4"
+})
+@AutoConfigureObservability(tracing = false)
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    static {
+        // A real replica gets its schema through replication
+        Flyway.configure().dataSource(replica.getDataSource()).load().migrate();
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private ReadRouting readRouting;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testReadOnlyQueriesGoToReplica() {
+        long id = 1_000_000L + (long) (Math.random() * 1_000_000);
+        String username = "replica_" + id;
+        insert(replica, id, username);
+
+        double before = routed("replica", "read");
+
+        assertThat(userService.getProfileById(id).username()).isEqualTo(username);
+        assertThat(userService.loadUserByUsername(username).getUsername()).isEqualTo(username);
+        assertThat(routed("replica", "read")).isEqualTo(before + 2);
+    }
+
+    @Test
+    void testTokenVersionIsReadFromReplica() {
+        long id = 3_000_000L + (long) (Math.random() * 1_000_000);
+        insert(replica, id, "version_" + id);
+
+        assertThat(tokenVersionService.isCurrent(id, 0)).isTrue();
+    }
+
+    @Test
+    void testImportedUsersDoNotTakeStickyEntries() {
+        long id = 4_000_000L + (long) (Math.random() * 1_000_000);
+
+        readRouting.onUserChanged(new UserChangedEvent(id, "imported_" + id, true));
+        assertThat(readRouting.isRecentlyWritten(id)).isFalse();
+        assertThat(readRouting.isRecentlyWritten("imported_" + id)).isFalse();
+
+        readRouting.onUserChanged(new UserChangedEvent(id, "imported_" + id));
+        assertThat(readRouting.isRecentlyWritten(id)).isTrue();
+    }
+
+    @Test
+    void testRowsOnlyOnPrimaryAreNotVisibleWithoutARecentWrite() {
+        long id = 2_000_000L + (long) (Math.random() * 1_000_000);
+        insert(primary, id, "primaryonly_" + id);
+
+        assertThatThrownBy(() -> userService.getProfileById(id)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void testReadsAboutAUserStayOnPrimaryRightAfterItsUpdate() {
+        String username = "sticky_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = userService.registerUser(registration(username));
+        double sticky = routed("primary", "sticky");
+
+        // The replica never receives these rows; only the primary can answer
+        assertThat(userService.getProfileById(user.getId()).username()).isEqualTo(username);
+
+        UserRegistrationDto rename = registration(username + "_new");
+        userService.updateUser(user.getId(), rename);
+        assertThat(userService.loadUserByUsername(rename.getUsername()).getUsername()).isEqualTo(rename.getUsername());
+        assertThat(userService.getUserById(user.getId()).getUsername()).isEqualTo(rename.getUsername());
+
+        assertThat(routed("primary", "sticky")).isEqualTo(sticky + 3);
+        assertThat(routed("primary", "write")).isPositive();
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("db.routing").tags("target", target, "reason", reason).functionCounter().count();
+    }
+
+    private static void insert(JdbcTemplate database, long id, String username) {
+        database.update("insert into users (id, username, email, username_normalized, email_normalized, password, role, token_version)"
+                + " values (?, ?, ?, ?, ?, '{noop}x', 'ROLE_USER', 0)", id, username, username + "@email.com", username, username + "@email.com");
+    }
+
+    private static UserRegistrationDto registration(String username) {
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(username);
+        dto.setEmail(username + "@email.com");
+        dto.setPassword("password123");
+        return dto;
+    }
+}
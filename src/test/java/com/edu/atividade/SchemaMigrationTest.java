@@ -0,0 +1,73 @@
+package com.edu.atividade;
+
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.repository.UserRepository;
+import com.edu.atividade.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "auth.password.bcrypt-strength=4")
+@ActiveProfiles("prod")
+class SchemaMigrationTest {
+
+    private static final String DB_OPTIONS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws Exception {
+        Path dir = Files.createTempDirectory("auth-db");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dir.resolve("prod") + DB_OPTIONS);
+    }
+
+    @Test
+    void testProdProfileMigratesFileDatabase() {
+        assertThat(jdbcTemplate.queryForList("select version from flyway_schema_history where success and version is not null order by installed_rank", String.class))
+                .containsExactly("1", "2", "3", "4");
+
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername("ProdUser");
+        dto.setEmail("ProdUser@email.com");
+        dto.setPassword("password123");
+        userService.registerUser(dto);
+
+        assertThat(userRepository.findByUsernameNormalized("produser")).isPresent();
+    }
+
+    @Test
+    void testNormalizedColumnsAreFilledForExistingRows() throws Exception {
+        Path dir = Files.createTempDirectory("auth-db");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:file:" + dir.resolve("upgrade") + DB_OPTIONS, "sa", "");
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+
+        // A database still on the baseline schema, holding a user written before the lookup columns existed
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        database.update("insert into users (id, username, email, password, role, token_version) values (1, 'OldUser', 'Old@Email.com', 'x', 'ROLE_USER', 0)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertThat(database.queryForMap("select username_normalized, email_normalized from users where id = 1"))
+                .containsEntry("username_normalized", User.normalize("OldUser"))
+                .containsEntry("email_normalized", "old@email.com");
+    }
+}
@@ -0,0 +1,83 @@
+package com.edu.atividade;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.edu.atividade.logging.SecurityEventLogger;
+import com.edu.atividade.metrics.AuthMetrics.LoginOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityEventLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SecurityEventLogger.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void testEachEventTypeIsSampledSeparately() {
+        SecurityEventLogger securityLog = new SecurityEventLogger(3, 1, 0, 1);
+
+        for (int i = 0; i < 7; i++) {
+            securityLog.loginSucceeded("user" + i);
+            securityLog.tokenRejected(LoginOutcome.ERROR, "user" + i, "127.0.0.1");
+        }
+        securityLog.loginFailed("intruder", LoginOutcome.BAD_CREDENTIALS);
+
+        assertThat(appender.list).hasSize(4);
+        assertThat(appender.list.subList(0, 3)).extracting(event -> fields(event).get("user"))
+                .containsExactly("user0", "user3", "user6");
+        assertThat(fields(appender.list.get(0))).containsEntry("event", "login_success").containsEntry("sample", 3);
+        assertThat(fields(appender.list.get(3)))
+                .containsEntry("event", "login_failure")
+                .containsEntry("reason", "bad_credentials")
+                .containsEntry("user", "intruder");
+    }
+
+    @Test
+    void testRequestValuesCannotForgeFieldsOrLines() {
+        SecurityEventLogger securityLog = new SecurityEventLogger(1, 1, 1, 1);
+
+        securityLog.loginFailed("bob\" event=\"login_success\nfake", LoginOutcome.BAD_CREDENTIALS);
+        securityLog.adminChange("admin", "update_user", "x".repeat(500));
+
+        assertThat(fields(appender.list.get(0)).get("user")).isEqualTo("bob_ event=_login_success_fake");
+        assertThat((String) fields(appender.list.get(1)).get("target")).hasSize(100);
+    }
+
+    @Test
+    void testDisabledLoggerWritesNothing() {
+        SecurityEventLogger securityLog = SecurityEventLogger.disabled();
+
+        securityLog.loginSucceeded("user");
+        securityLog.adminChange(null, "register_admin", "admin");
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    private static Map<String, Object> fields(ILoggingEvent event) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (KeyValuePair pair : event.getKeyValuePairs()) {
+            fields.put(pair.key, pair.value);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,145 @@
+package com.edu.atividade;
+
+import com.edu.atividade.dto.UserLoginDto;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.model.CustomUserDetails;
+import com.edu.atividade.repository.UserRepository;
+import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.edu.atividade.AsyncRequests.performAsync;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "jwt.stateless-principal=true")
+class StatelessPrincipalTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
+    private MockMvc mockMvc;
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+
+        String unique = UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername("stateless_" + unique);
+        registrationDto.setEmail("stateless_" + unique + "@email.com");
+        registrationDto.setPassword("password123");
+        user = userService.registerUser(registrationDto);
+
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername(registrationDto.getUsername());
+        loginDto.setPassword("password123");
+        String response = performAsync(mockMvc, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDto)))
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(response).get("token").asText();
+    }
+
+    @Test
+    void testAuthenticatesWithoutLoadingUserByUsername() throws Exception {
+        clearInvocations(userRepository);
+
+        mockMvc.perform(get("/api/users/" + user.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(user.getUsername()));
+
+        verify(userRepository, never()).findByUsernameNormalized(anyString());
+    }
+
+    @Test
+    void testPasswordChangeRevokesIssuedTokens() throws Exception {
+        UserRegistrationDto updateDto = new UserRegistrationDto();
+        updateDto.setUsername(user.getUsername());
+        updateDto.setEmail(user.getEmail());
+        updateDto.setPassword("newpassword");
+        userService.updateUser(user.getId(), updateDto);
+
+        mockMvc.perform(get("/api/users/" + user.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testTokenWithUnknownOrMissingRoleStaysAnonymous() throws Exception {
+        for (List<String> roles : List.of(List.of("ROLE_ROOT"), List.<String>of())) {
+            String forged = jwtService.generateToken(Map.of(
+                    JwtService.ROLES_CLAIM, roles,
+                    JwtService.USER_ID_CLAIM, user.getId(),
+                    JwtService.TOKEN_VERSION_CLAIM, user.getTokenVersion()), new CustomUserDetails(user));
+
+            mockMvc.perform(get("/api/users/" + user.getId())
+                    .header("Authorization", "Bearer " + forged))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Test
+    void testNewPasswordIsHashedOnThePoolOutsideTheTransaction() {
+        List<String> hashedOn = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            hashedOn.add(Thread.currentThread().getName()
+                    + (TransactionSynchronizationManager.isActualTransactionActive() ? " in transaction" : ""));
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(anyString());
+
+        UserRegistrationDto updateDto = new UserRegistrationDto();
+        updateDto.setUsername(user.getUsername());
+        updateDto.setEmail(user.getEmail());
+        updateDto.setPassword("newpassword");
+        userService.updateUser(user.getId(), updateDto);
+
+        assertThat(hashedOn).singleElement().asString().startsWith("password-hash-").doesNotContain("transaction");
+    }
+}
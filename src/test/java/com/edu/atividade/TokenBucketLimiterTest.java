@@ -0,0 +1,54 @@
+package com.edu.atividade;
+
+import com.edu.atividade.ratelimit.TokenBucketLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void testBurstThenRefillAtConfiguredRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 60, 100, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("bob")).isEqualTo(TokenBucketLimiter.ACQUIRED);
+        }
+        long wait = limiter.tryAcquire("bob");
+        assertThat(wait).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        // Other keys have their own bucket
+        assertThat(limiter.tryAcquire("alice")).isEqualTo(TokenBucketLimiter.ACQUIRED);
+
+        clock.addAndGet(wait);
+        assertThat(limiter.tryAcquire("bob")).isEqualTo(TokenBucketLimiter.ACQUIRED);
+        assertThat(limiter.tryAcquire("bob")).isPositive();
+    }
+
+    @Test
+    void testOnlyRefilledBucketsAreRemoved() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60, 100, clock::get);
+        limiter.tryAcquire("idle");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.tryAcquire("busy");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+
+        assertThat(limiter.removeIdle()).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testKeyCountStaysWithinBound() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 1, 100, clock::get);
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("key" + i);
+        }
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(100);
+    }
+}
@@ -0,0 +1,141 @@
+package com.edu.atividade;
+
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "auth.password.bcrypt-strength=4")
+class TokenIntrospectionTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private MockMvc mockMvc;
+    private User user;
+    private String userToken;
+    private String adminToken;
+    private String serviceToken;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+        user = register(false);
+        userToken = jwtService.generateToken(user);
+        adminToken = jwtService.generateToken(register(true));
+        serviceToken = jwtService.generateToken(userService.registerServiceAccount(registration()));
+    }
+
+    @Test
+    void testBatchReportsEachTokenInOrder() throws Exception {
+        String revoked = jwtService.generateToken(user);
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + revoked))
+                .andExpect(status().isNoContent());
+
+        introspect(serviceToken, List.of(userToken, revoked, "not-a-jwt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].active").value(true))
+                .andExpect(jsonPath("$[0].status").value("VALID"))
+                .andExpect(jsonPath("$[0].subject").value(user.getUsername()))
+                .andExpect(jsonPath("$[0].role").value("ROLE_USER"))
+                .andExpect(jsonPath("$[0].expiresAt").isNumber())
+                .andExpect(jsonPath("$[1].active").value(false))
+                .andExpect(jsonPath("$[1].status").value("REVOKED"))
+                .andExpect(jsonPath("$[2].status").value("MALFORMED"));
+    }
+
+    @Test
+    void testLargeBatchIsVerifiedInParallelKeepingOrder() throws Exception {
+        List<String> tokens = new ArrayList<>(Collections.nCopies(100, userToken));
+        for (int i = 0; i < tokens.size(); i += 3) {
+            tokens.set(i, "garbage" + i);
+        }
+
+        JsonNode results = objectMapper.readTree(introspect(serviceToken, tokens)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(results).hasSize(100);
+        for (int i = 0; i < tokens.size(); i++) {
+            assertThat(results.get(i).get("active").asBoolean()).isEqualTo(i % 3 != 0);
+        }
+    }
+
+    @Test
+    void testIntrospectionRequiresServiceAccount() throws Exception {
+        introspect(userToken, List.of(userToken)).andExpect(status().isForbidden());
+        introspect(adminToken, List.of(userToken)).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testAdminCreatesServiceAccount() throws Exception {
+        UserRegistrationDto dto = registration();
+        mockMvc.perform(post("/api/admin/service-accounts")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(dto.getUsername()))
+                .andExpect(jsonPath("$.role").value("ROLE_INTROSPECT"));
+        mockMvc.perform(post("/api/admin/service-accounts")
+                .header("Authorization", "Bearer " + serviceToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registration())))
+                .andExpect(status().isForbidden());
+    }
+
+    private ResultActions introspect(String bearer, List<String> tokens) throws Exception {
+        return mockMvc.perform(post("/api/auth/introspect")
+                .header("Authorization", "Bearer " + bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("tokens", tokens))));
+    }
+
+    private User register(boolean admin) {
+        UserRegistrationDto dto = registration();
+        return admin ? userService.registerAdmin(dto) : userService.registerUser(dto);
+    }
+
+    private static UserRegistrationDto registration() {
+        String username = "introspect_" + UUID.randomUUID().toString().substring(0, 8);
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(username);
+        dto.setEmail(username + "@email.com");
+        dto.setPassword("password123");
+        return dto;
+    }
+}
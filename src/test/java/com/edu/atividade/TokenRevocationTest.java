@@ -0,0 +1,110 @@
+package com.edu.atividade;
+
+import com.edu.atividade.dto.UserLoginDto;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static com.edu.atividade.AsyncRequests.performAsync;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "auth.password.bcrypt-strength=4")
+class TokenRevocationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void testLogoutRevokesAccessAndRefreshToken() throws Exception {
+        User user = register(false);
+        JsonNode first = login(user);
+        JsonNode second = login(user);
+        String token = first.get("token").asText();
+
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", first.get("refreshToken").asText()))))
+                .andExpect(status().isNoContent());
+
+        profile(token).andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", first.get("refreshToken").asText()))))
+                .andExpect(status().isUnauthorized());
+        // Other sessions of the same user are untouched
+        profile(second.get("token").asText()).andExpect(status().isOk());
+    }
+
+    @Test
+    void testAdminRevokesEveryTokenOfUser() throws Exception {
+        User user = register(false);
+        String first = login(user).get("token").asText();
+        String second = login(user).get("token").asText();
+        String adminToken = login(register(true)).get("token").asText();
+
+        mockMvc.perform(post("/api/admin/users/" + user.getId() + "/revoke-tokens")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNoContent());
+
+        profile(first).andExpect(status().isForbidden());
+        profile(second).andExpect(status().isForbidden());
+        profile(adminToken).andExpect(status().isOk());
+    }
+
+    private ResultActions profile(String token) throws Exception {
+        return mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + token));
+    }
+
+    private User register(boolean admin) {
+        String username = "revoke_" + UUID.randomUUID().toString().substring(0, 8);
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(username);
+        dto.setEmail(username + "@email.com");
+        dto.setPassword("password123");
+        return admin ? userService.registerAdmin(dto) : userService.registerUser(dto);
+    }
+
+    private JsonNode login(User user) throws Exception {
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername(user.getUsername());
+        loginDto.setPassword("password123");
+        return objectMapper.readTree(performAsync(mockMvc, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -17,7 +17,9 @@ import org.springframework.web.context.WebApplicationContext;
 import java.util.Optional;
 import java.util.UUID;
 
+import static com.edu.atividade.AsyncRequests.performAsync;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -44,7 +46,9 @@ class UserControllerTest {
 
     @BeforeEach
     void setUp() throws Exception {
-        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
         userRepository.deleteAll();
 
         // Gera sufixo único
@@ -59,7 +63,7 @@ class UserControllerTest {
         userDto.setUsername(userUsername);
         userDto.setEmail(userEmail);
         userDto.setPassword("password123");
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(mockMvc, post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(userDto)));
 
@@ -68,7 +72,7 @@ class UserControllerTest {
         adminDto.setUsername(adminUsername);
         adminDto.setEmail(adminEmail);
         adminDto.setPassword("adminpass");
-        mockMvc.perform(post("/api/auth/register/admin")
+        performAsync(mockMvc, post("/api/auth/register/admin")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(adminDto)));
 
@@ -76,7 +80,7 @@ class UserControllerTest {
         UserLoginDto loginUser = new UserLoginDto();
         loginUser.setUsername(userUsername);
         loginUser.setPassword("password123");
-        String userResponse = mockMvc.perform(post("/api/auth/login")
+        String userResponse = performAsync(mockMvc, post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginUser)))
                 .andReturn().getResponse().getContentAsString();
@@ -86,7 +90,7 @@ class UserControllerTest {
         UserLoginDto loginAdmin = new UserLoginDto();
         loginAdmin.setUsername(adminUsername);
         loginAdmin.setPassword("adminpass");
-        String adminResponse = mockMvc.perform(post("/api/auth/login")
+        String adminResponse = performAsync(mockMvc, post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginAdmin)))
                 .andReturn().getResponse().getContentAsString();
@@ -115,6 +119,27 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.id").exists());
     }
 
+    @Test
+    void testMalformedTokenIsRejectedWith401() throws Exception {
+        mockMvc.perform(get("/api/users/profile")
+                .header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer error=\"invalid_token\""))
+                .andExpect(jsonPath("$.error").value("Invalid token"));
+        // A signature of the wrong length is turned away by the same check and gets the same answer
+        mockMvc.perform(get("/api/users/profile")
+                .header("Authorization", "Bearer " + userToken + "AAAA"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Invalid token"));
+    }
+
+    @Test
+    void testMalformedTokenDoesNotBlockPublicEndpoints() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json")
+                .header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testUpdateUserProfile() throws Exception {
         String updateUnique = UUID.randomUUID().toString().replace("-", "").substring(0, 8);
@@ -131,6 +156,21 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.username").value(updateDto.getUsername()));
     }
 
+    @Test
+    void testUpdateUserProfileWithTakenUsernameConflicts() throws Exception {
+        UserRegistrationDto updateDto = new UserRegistrationDto();
+        updateDto.setUsername(adminUsername);
+        updateDto.setEmail("another_" + userUsername + "@email.com");
+        updateDto.setPassword("newpassword");
+
+        mockMvc.perform(put("/api/users/profile")
+                .header("Authorization", "Bearer " + userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Username already exists"));
+    }
+
     @Test
     void testGetAllUsersAsAdmin() throws Exception {
         mockMvc.perform(get("/api/users")
@@ -139,6 +179,52 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].username").exists());
     }
 
+    @Test
+    void testGetAllUsersPagesByCursor() throws Exception {
+        mockMvc.perform(get("/api/users").param("size", "1")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].username").value(userUsername))
+                .andExpect(jsonPath("$[0].password").doesNotExist())
+                .andExpect(jsonPath("$[0].authorities").doesNotExist())
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(userId)));
+
+        mockMvc.perform(get("/api/users").param("afterId", String.valueOf(userId)).param("size", "1")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].username").value(adminUsername))
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(adminId)));
+
+        mockMvc.perform(get("/api/users").param("afterId", String.valueOf(adminId))
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testExportUsersAsNdjson() throws Exception {
+        String body = performAsync(mockMvc, get("/api/users/export")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("username").asText()).isEqualTo(userUsername);
+        assertThat(objectMapper.readTree(lines[1]).get("username").asText()).isEqualTo(adminUsername);
+        assertThat(body).doesNotContain("password");
+    }
+
+    @Test
+    void testExportUsersAsUserForbidden() throws Exception {
+        mockMvc.perform(get("/api/users/export")
+                .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void testGetUserByIdAsAdmin() throws Exception {
         mockMvc.perform(get("/api/users/" + userId)
@@ -178,4 +264,35 @@ class UserControllerTest {
                 .andExpect(status().isNoContent());
         assertThat(userRepository.findById(userId)).isEmpty();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testUpdatedUserIsEvictedFromUserCache() throws Exception {
+        String updateUnique = UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        UserRegistrationDto updateDto = new UserRegistrationDto();
+        updateDto.setUsername(userUsername);
+        updateDto.setEmail("user1cache_" + updateUnique + "@email.com");
+        updateDto.setPassword("changedpass");
+
+        mockMvc.perform(put("/api/users/" + userId)
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk());
+
+        // A cached entry would still hold the old password hash
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername(userUsername);
+        loginDto.setPassword("changedpass");
+        performAsync(mockMvc, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/caches")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userDetails.hits").exists())
+                .andExpect(jsonPath("$.userDetails.evictions").exists());
+    }
+
+}
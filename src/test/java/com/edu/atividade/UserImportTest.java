@@ -0,0 +1,193 @@
+package com.edu.atividade;
+
+import com.edu.atividade.dto.UserImportResultDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.repository.UserRepository;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.service.PasswordHashingExecutor;
+import com.edu.atividade.service.UserImportService;
+import com.edu.atividade.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"auth.import.chunk-size=2", "auth.password.bcrypt-strength=4"})
+class UserImportTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    private MockMvc mockMvc;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+        prefix = "imp" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportCsvSkipsInvalidAndDuplicateRows() throws Exception {
+        UserRegistrationDto existing = new UserRegistrationDto();
+        existing.setUsername(prefix + "_taken");
+        existing.setEmail(prefix + "_taken@email.com");
+        existing.setPassword("password123");
+        userService.registerUser(existing);
+
+        String csv = String.join("\n",
+                "email,username,password",
+                prefix + "_a@email.com," + prefix + "_a,password123",
+                prefix + "_b@email.com," + prefix + "_b,\"pass,\"\"word\"",
+                "not-an-email," + prefix + "_c,password123",
+                prefix + "_d@email.com," + prefix + "_a,password123",
+                prefix + "_e@email.com," + prefix + "_taken,password123",
+                prefix + "_f@email.com," + prefix + "_f,password123");
+
+        mockMvc.perform(post("/api/admin/users/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(3))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(4))
+                .andExpect(jsonPath("$.errors[0].reason").value("Invalid email format"))
+                .andExpect(jsonPath("$.errors[1].line").value(5))
+                .andExpect(jsonPath("$.errors[2].reason").value("Username already exists"));
+
+        User imported = userRepository.findByUsername(prefix + "_b").orElseThrow();
+        assertThat(passwordEncoder.matches("pass,\"word", imported.getPassword())).isTrue();
+        assertThat(userRepository.findByUsername(prefix + "_f")).isPresent();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportNdjsonReportsMalformedLines() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"username\":\"" + prefix + "_x\",\"email\":\"" + prefix + "_x@email.com\",\"password\":\"password123\"}",
+                "{not json",
+                "{\"username\":\"" + prefix + "_y\",\"email\":\"" + prefix + "_y@email.com\",\"password\":\"123\"}");
+
+        mockMvc.perform(post("/api/admin/users/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].reason").value("Malformed line"))
+                .andExpect(jsonPath("$.errors[1].reason").value("Password must be at least 6 characters long"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportNdjsonRejectsNullLines() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"username\":\"" + prefix + "_n\",\"email\":\"" + prefix + "_n@email.com\",\"password\":\"password123\"}",
+                "null");
+
+        mockMvc.perform(post("/api/admin/users/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].reason").value("Malformed line"));
+    }
+
+    @Test
+    @WithMockUser
+    void testImportRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/admin/users/import")
+                .contentType("text/csv")
+                .content("username,email,password"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testChunkTurnedAwayByBusyPoolIsReportedAndImportGoesOn() throws Exception {
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1);
+        UserImportService importService = new UserImportService(userRepository, passwordEncoder, hashingExecutor,
+                transactionManager, eventPublisher, objectMapper, validator, 1, 0);
+        String csv = String.join("\n",
+                "username,email,password",
+                prefix + "_busy," + prefix + "_busy@email.com,password123",
+                prefix + "_later," + prefix + "_later@email.com,password123");
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> blockers = new ArrayList<>();
+        try {
+            // One task holds the only thread and one fills the queue
+            for (int i = 0; i < 2; i++) {
+                blockers.add(hashingExecutor.submit(() -> {
+                    try {
+                        return release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+
+            UserImportResultDto busy = importService.importUsers(input(csv), UserImportService.Format.CSV);
+            assertThat(busy.created()).isZero();
+            assertThat(busy.rejected()).isEqualTo(2);
+            assertThat(busy.errors()).allSatisfy(error -> assertThat(error.reason()).isEqualTo("Server busy, not imported"));
+        } finally {
+            release.countDown();
+        }
+        CompletableFuture.allOf(blockers.toArray(CompletableFuture[]::new)).join();
+
+        UserImportResultDto retried = importService.importUsers(input(csv), UserImportService.Format.CSV);
+        assertThat(retried.created()).isEqualTo(2);
+        hashingExecutor.destroy();
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
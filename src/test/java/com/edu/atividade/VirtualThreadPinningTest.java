@@ -0,0 +1,98 @@
+package com.edu.atividade;
+
+import com.edu.atividade.dto.UserLoginDto;
+import com.edu.atividade.dto.UserRegistrationDto;
+import com.edu.atividade.model.User;
+import com.edu.atividade.service.AuthService;
+import com.edu.atividade.service.JwtService;
+import com.edu.atividade.service.UserService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the auth paths on virtual threads and fails if JFR reports a virtual thread parking while pinned
+ * to its carrier (e.g. inside a synchronized block). A login through AuthService only covers the rate
+ * limiter and the hand-off: its BCrypt check runs on the platform hashing pool. So the authentication
+ * manager is also called directly, which runs the provider, the user lookup and BCrypt on the virtual
+ * thread itself, as well as token validation and user loading.
+ */
+// Room for the 50 logins below: the limiter stays on the path being checked but never refuses
+@SpringBootTest(properties = {"auth.rate-limit.username.capacity=100", "auth.rate-limit.account.capacity=100",
+        "auth.rate-limit.ip.capacity=100"})
+@ActiveProfiles("virtual")
+class VirtualThreadPinningTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Test
+    void testAuthHotPathDoesNotPinCarrierThreads() throws Exception {
+        UserRegistrationDto registrationDto = new UserRegistrationDto();
+        registrationDto.setUsername("pinning_user");
+        registrationDto.setEmail("pinning_user@example.com");
+        registrationDto.setPassword("password123");
+        User user = userService.registerUser(registrationDto);
+        String token = jwtService.generateToken(user);
+
+        UserLoginDto loginDto = new UserLoginDto();
+        loginDto.setUsername("pinning_user");
+        loginDto.setPassword("password123");
+
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> calls = new CopyOnWriteArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    calls.add(virtualThreads.submit(() -> authService.login(loginDto, "127.0.0.1").join()));
+                    calls.add(virtualThreads.submit(() -> authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken("pinning_user", "password123"))));
+                    calls.add(virtualThreads.submit(() -> {
+                        String subject = jwtService.validateToken(token).subject();
+                        return userDetailsService.loadUserByUsername(subject);
+                    }));
+                    calls.add(virtualThreads.submit(() -> userService.getUserById(user.getId())));
+                }
+                for (Future<?> call : calls) {
+                    call.get();
+                }
+            }
+            // Let the stream deliver events recorded by the last calls
+            recording.stop();
+        }
+
+        assertThat(pinned).extracting(event -> event.getStackTrace() == null ? "" : event.getStackTrace().toString())
+                .isEmpty();
+    }
+}